@@ -0,0 +1,76 @@
+package com.yalin.wheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一帧中所有行的圆柱投影计算：查找表插值与直接调用三角函数对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CylinderGeometryBenchmark {
+    private static final int ITEMS_VISIBLE = 11;
+    private static final float ITEM_HEIGHT = 56f;
+    private static final int HALF_CIRCUMFERENCE = (int) (ITEM_HEIGHT * (ITEMS_VISIBLE - 1));
+    private static final int RADIUS = (int) (HALF_CIRCUMFERENCE / Math.PI);
+    private static final int TEXT_HEIGHT = 40;
+
+    private final CylinderGeometry mGeometry = new CylinderGeometry();
+    private int mScrollOffset;
+
+    @Setup
+    public void setup() {
+        mGeometry.setup(HALF_CIRCUMFERENCE, RADIUS, TEXT_HEIGHT);
+    }
+
+    @Benchmark
+    public float lookupTable() {
+        int itemHeightOffset = nextOffset();
+        float sum = 0f;
+        for (int counter = 0; counter < ITEMS_VISIBLE; counter++) {
+            float y = ITEM_HEIGHT * counter - itemHeightOffset;
+            if (mGeometry.isVisible(y)) {
+                sum += mGeometry.getTranslateY(y) + mGeometry.getScale(y);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 改用查找表之前 onDraw 的算法
+     */
+    @Benchmark
+    public float trigonometry() {
+        int itemHeightOffset = nextOffset();
+        float sum = 0f;
+        for (int counter = 0; counter < ITEMS_VISIBLE; counter++) {
+            double radian = (ITEM_HEIGHT * counter - itemHeightOffset) * Math.PI / HALF_CIRCUMFERENCE;
+            if (radian > 0 && radian < Math.PI) {
+                float translateY = (float) (RADIUS - Math.cos(radian) * RADIUS
+                        - Math.sin(radian) * TEXT_HEIGHT / 2d);
+                float scale = (float) Math.sin(radian);
+                sum += translateY + scale;
+            }
+        }
+        return sum;
+    }
+
+    private int nextOffset() {
+        mScrollOffset = (mScrollOffset + 7) % (int) ITEM_HEIGHT;
+        return mScrollOffset;
+    }
+}
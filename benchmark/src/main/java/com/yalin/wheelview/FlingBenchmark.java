@@ -0,0 +1,73 @@
+package com.yalin.wheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模拟一次完整的惯性滚动和回弹：按帧间隔逐帧取位置，直到结束
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlingBenchmark {
+    private static final float ITEM_HEIGHT = 56f;
+
+    /**
+     * 60Hz 和 120Hz 的帧间隔
+     */
+    @Param({"16666667", "8333333"})
+    public long frameNanos;
+
+    @Param({"1000", "6000"})
+    public float velocity;
+
+    private final DecayFlingModel mDecay = new DecayFlingModel();
+    private final SplineFlingModel mSpline = new SplineFlingModel(3f);
+    private final DecayFlingModel mSettle = new DecayFlingModel(10.536f, 10f);
+
+    @Benchmark
+    public float decayFling() {
+        return simulate(mDecay, velocity);
+    }
+
+    @Benchmark
+    public float splineFling() {
+        return simulate(mSpline, velocity);
+    }
+
+    @Benchmark
+    public float settle() {
+        mSettle.fling(0f, 0f);
+        mSettle.setFinalPosition(ITEM_HEIGHT / 2);
+        return run(mSettle);
+    }
+
+    private float simulate(FlingModel model, float velocity) {
+        model.fling(0f, velocity);
+        model.setFinalPosition(Math.round(model.getFinalPosition() / ITEM_HEIGHT) * ITEM_HEIGHT);
+        return run(model);
+    }
+
+    private float run(FlingModel model) {
+        float sum = 0f;
+        long elapsed = 0;
+        while (!model.isFinished(elapsed)) {
+            elapsed += frameNanos;
+            sum += Math.round(model.getPosition(elapsed));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,107 @@
+package com.yalin.wheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 最大文字宽度扫描：改动前的实现作为基准，与 WheelView 现在的 char[] 全量扫描和抽样扫描对比。
+ * JVM 上没有 Paint，用固定的字符宽度表代替 getTextBounds，测量的是取文字和遍历本身的开销；
+ * 文字和抽样下标都来自生产代码 {@link NumericWheelAdapter} 和 {@link WheelMath#sampleIndex(int, int, int)}。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LabelScanBenchmark {
+    /**
+     * 与 WheelView.MEASURE_SAMPLE_COUNT 相同
+     */
+    private static final int SAMPLE_COUNT = 64;
+    private static final String HEIGHT_SAMPLE = "\u661F\u671F";
+
+    @Param({"100", "10000", "1000000"})
+    public int count;
+
+    private final float[] mAdvances = new float[128];
+    private NumericWheelAdapter mAdapter;
+    private char[] mBuffer;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < mAdvances.length; i++) {
+            mAdvances[i] = 8f + (i % 7);
+        }
+        mAdapter = new NumericWheelAdapter(0, count - 1, 1, 2, "No.", null);
+        mBuffer = new char[mAdapter.getMaxLabelLength()];
+    }
+
+    /**
+     * 改动前的 measureTextWidthHeight：每项创建 String，并在循环内重复测量固定文字的高度
+     */
+    @Benchmark
+    public float baselineFullScan() {
+        float maxWidth = 0f;
+        float maxHeight = 0f;
+        for (int i = 0, size = mAdapter.getItemsCount(); i < size; i++) {
+            String label = mAdapter.getItemLabel(i);
+            maxWidth = Math.max(maxWidth, measure(label));
+            maxHeight = Math.max(maxHeight, measure(HEIGHT_SAMPLE));
+        }
+        return maxWidth + maxHeight;
+    }
+
+    /**
+     * 对应 MeasureStrategy.FULL，文字写入复用的 char[]
+     */
+    @Benchmark
+    public float fullScanCharArray() {
+        float maxWidth = 0f;
+        for (int i = 0, size = mAdapter.getItemsCount(); i < size; i++) {
+            maxWidth = Math.max(maxWidth, measure(mBuffer, mAdapter.getItemLabel(i, mBuffer)));
+        }
+        return maxWidth + measure(HEIGHT_SAMPLE);
+    }
+
+    /**
+     * 对应 MeasureStrategy.SAMPLED
+     */
+    @Benchmark
+    public float sampledScan() {
+        int size = mAdapter.getItemsCount();
+        float maxWidth = 0f;
+        for (int i = 0, samples = Math.min(size, SAMPLE_COUNT); i < samples; i++) {
+            int index = WheelMath.sampleIndex(i, size, SAMPLE_COUNT);
+            maxWidth = Math.max(maxWidth, measure(mBuffer, mAdapter.getItemLabel(index, mBuffer)));
+        }
+        return maxWidth + measure(HEIGHT_SAMPLE);
+    }
+
+    private float measure(String text) {
+        float width = 0f;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            width += mAdvances[text.charAt(i) & 127];
+        }
+        return width;
+    }
+
+    private float measure(char[] text, int length) {
+        float width = 0f;
+        for (int i = 0; i < length; i++) {
+            width += mAdvances[text[i] & 127];
+        }
+        return width;
+    }
+}
@@ -0,0 +1,131 @@
+package com.yalin.wheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * onDraw 中每帧计算可见窗口下标的开销。
+ * laps 是滚动过的整圈数，原来的实现先对滚动行数取模，之后的递归映射深度与 laps 无关；
+ * 这里确认新的实现也不随 laps 变化。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoopMappingBenchmark {
+    private static final int ITEMS_VISIBLE = 11;
+    private static final int CENTERS = 64;
+    private static final float ITEM_HEIGHT = 56f;
+
+    @Param({"12", "1000", "100000"})
+    public int count;
+
+    @Param({"0", "100"})
+    public int laps;
+
+    private long[] mCenters;
+    private int[] mVisibleItems;
+    private long[] mScrollPositions;
+    private WheelLayoutEngine mEngine;
+
+    @Setup
+    public void setup() {
+        mCenters = new long[CENTERS];
+        mScrollPositions = new long[CENTERS];
+        for (int i = 0; i < CENTERS; i++) {
+            long center = (long) count * laps + (long) count * i / CENTERS;
+            mCenters[i] = center;
+            mScrollPositions[i] = (long) (center * (double) ITEM_HEIGHT);
+        }
+        mVisibleItems = new int[ITEMS_VISIBLE];
+        mEngine = new WheelLayoutEngine(ITEMS_VISIBLE);
+        mEngine.setItemCount(count);
+        mEngine.setLoop(true);
+        mEngine.setItemHeight(ITEM_HEIGHT, 35);
+        mEngine.setCurrentItem(0);
+    }
+
+    /**
+     * 改动前 WheelView.onDraw 的完整路径：int 滚动距离换算行数，取模后修正一次，
+     * 再把未映射的下标交给递归映射，与原来传入的参数完全相同
+     */
+    @Benchmark
+    @OperationsPerInvocation(CENTERS)
+    public int baselineRecursive() {
+        int[] visibleItems = mVisibleItems;
+        int sum = 0;
+        for (long scrollY : mScrollPositions) {
+            int totalScrollY = (int) scrollY;
+            int change = (int) (totalScrollY / ITEM_HEIGHT);
+            int preCurrentIndex = change % count;
+            if (preCurrentIndex < 0) {
+                preCurrentIndex = count + preCurrentIndex;
+            }
+            if (preCurrentIndex > count - 1) {
+                preCurrentIndex = preCurrentIndex - count;
+            }
+            for (int counter = 0; counter < ITEMS_VISIBLE; counter++) {
+                int index = preCurrentIndex - (ITEMS_VISIBLE / 2 - counter);
+                visibleItems[counter] = getLoopMappingIndex(index);
+            }
+            sum += visibleItems[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CENTERS)
+    public int wheelMath() {
+        int[] visibleItems = mVisibleItems;
+        int sum = 0;
+        for (long center : mCenters) {
+            for (int counter = 0; counter < ITEMS_VISIBLE; counter++) {
+                long index = center - (ITEMS_VISIBLE / 2 - counter);
+                visibleItems[counter] = WheelMath.loopMappingIndex(index, count);
+            }
+            sum += visibleItems[0];
+        }
+        return sum;
+    }
+
+    /**
+     * WheelView.onDraw 实际调用的路径，包含圆柱投影
+     */
+    @Benchmark
+    @OperationsPerInvocation(CENTERS)
+    public int layoutEngine() {
+        WheelLayoutEngine engine = mEngine;
+        int sum = 0;
+        for (long scrollY : mScrollPositions) {
+            engine.setTotalScrollY(scrollY);
+            engine.layout();
+            sum += engine.getRowItem(0);
+        }
+        return sum;
+    }
+
+    private int getLoopMappingIndex(int index) {
+        if (index < 0) {
+            index += count;
+            index = getLoopMappingIndex(index);
+        } else if (index > count - 1) {
+            index -= count;
+            index = getLoopMappingIndex(index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,54 @@
+package com.yalin.wheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * onDraw 开头的整帧布局：中间下标、可见行下标和每行的投影变换
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WheelLayoutEngineBenchmark {
+    private static final float ITEM_HEIGHT = 56f;
+
+    @Param({"100", "100000"})
+    public int count;
+
+    @Param({"true", "false"})
+    public boolean loop;
+
+    private WheelLayoutEngine mEngine;
+    private int mScrollY;
+
+    @Setup
+    public void setup() {
+        mEngine = new WheelLayoutEngine(11);
+        mEngine.setItemCount(count);
+        mEngine.setLoop(loop);
+        mEngine.setItemHeight(ITEM_HEIGHT, 35);
+        mEngine.ensureInitPosition();
+    }
+
+    @Benchmark
+    public int layout() {
+        mScrollY = (mScrollY + 7) % (int) (ITEM_HEIGHT * count / 2);
+        mEngine.setTotalScrollY(mScrollY);
+        mEngine.layout();
+        return mEngine.getPreCurrentIndex();
+    }
+}
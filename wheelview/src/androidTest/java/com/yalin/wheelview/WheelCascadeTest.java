@@ -0,0 +1,64 @@
+package com.yalin.wheelview;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 父列选中项变化后子列换成对应的 adapter 并回到第一项，相同 key 复用缓存中的 adapter
+ */
+@RunWith(AndroidJUnit4.class)
+public class WheelCascadeTest {
+
+    @Test
+    public void parentChangeRebindsChild() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final int[] created = new int[1];
+                WheelView parent = new WheelView(context);
+                WheelView child = new WheelView(context);
+                WheelCascade cascade = new WheelCascade();
+                cascade.addRoot(parent, new NumericWheelAdapter(1, 12));
+                cascade.addChild(parent, child, new WheelCascade.ChildAdapterProvider() {
+                    @Override
+                    public Object getChildKey(WheelAdapter parentAdapter, int parentPosition) {
+                        // 按月份给出天数，只区分 30 和 31 天
+                        return parentPosition % 2 == 0 ? 31 : 30;
+                    }
+
+                    @Override
+                    public WheelAdapter createChildAdapter(Object key) {
+                        created[0]++;
+                        return new NumericWheelAdapter(1, (Integer) key);
+                    }
+                });
+                cascade.setCurrentItem(parent, 0);
+                cascade.flush();
+                WheelAdapter days31 = child.getAdapter();
+                assertEquals(31, days31.getItemsCount());
+                assertEquals(0, child.getCurrentItem());
+
+                child.setCurrentItem(20);
+                cascade.setCurrentItem(parent, 1);
+                cascade.flush();
+                assertEquals(30, child.getAdapter().getItemsCount());
+                assertEquals(0, child.getCurrentItem());
+
+                child.setCurrentItem(20);
+                cascade.setCurrentItem(parent, 2);
+                cascade.flush();
+                assertSame(days31, child.getAdapter());
+                assertEquals(0, child.getCurrentItem());
+                assertEquals(2, created[0]);
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.yalin.wheelview;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 稳定惯性滚动过程中，动画推进和 onDraw 不应产生任何对象分配
+ */
+@RunWith(AndroidJUnit4.class)
+public class WheelViewAllocationTest {
+    private static final long FRAME_NANOS = 16666667L;
+    private static final int WARM_UP_FRAMES = 5;
+    private static final int MEASURED_FRAMES = 30;
+
+    @Test
+    public void steadyStateFlingDoesNotAllocate() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        final int[] allocations = new int[1];
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final String[] labels = new String[100];
+                for (int i = 0; i < labels.length; i++) {
+                    labels[i] = "item " + i;
+                }
+                WheelView wheelView = new WheelView(context);
+                wheelView.setLabel("K");
+                wheelView.setAdapter(new WheelAdapter() {
+                    @Override
+                    public int getItemsCount() {
+                        return labels.length;
+                    }
+
+                    @NonNull
+                    @Override
+                    public String getItemLabel(int index) {
+                        return labels[index];
+                    }
+                });
+                wheelView.measure(View.MeasureSpec.makeMeasureSpec(600, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+                wheelView.layout(0, 0, wheelView.getMeasuredWidth(), wheelView.getMeasuredHeight());
+                Bitmap bitmap = Bitmap.createBitmap(wheelView.getMeasuredWidth(),
+                        wheelView.getMeasuredHeight(), Bitmap.Config.ARGB_8888);
+                Canvas canvas = new Canvas(bitmap);
+
+                // 未挂载时 scrollBy 只记录状态，由测试手动推进帧
+                wheelView.scrollBy(3000f);
+                long frameTime = System.nanoTime();
+                for (int i = 0; i < WARM_UP_FRAMES; i++) {
+                    frameTime += FRAME_NANOS;
+                    wheelView.onAnimationFrame(frameTime);
+                    wheelView.draw(canvas);
+                }
+
+                Debug.startAllocCounting();
+                Debug.resetThreadAllocCount();
+                for (int i = 0; i < MEASURED_FRAMES; i++) {
+                    frameTime += FRAME_NANOS;
+                    wheelView.onAnimationFrame(frameTime);
+                    wheelView.draw(canvas);
+                }
+                allocations[0] = Debug.getThreadAllocCount();
+                Debug.stopAllocCounting();
+                bitmap.recycle();
+            }
+        });
+
+        assertEquals(0, allocations[0]);
+    }
+}
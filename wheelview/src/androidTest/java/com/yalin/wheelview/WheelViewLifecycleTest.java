@@ -0,0 +1,198 @@
+package com.yalin.wheelview;
+
+import android.content.Context;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 反复挂载、滚动、分离 WheelView，检查动画不会遗留线程或帧回调
+ */
+@RunWith(AndroidJUnit4.class)
+public class WheelViewLifecycleTest {
+    private static final int CYCLES = 50;
+
+    private static final WheelAdapter ADAPTER = new WheelAdapter() {
+        @Override
+        public int getItemsCount() {
+            return 30;
+        }
+
+        @NonNull
+        @Override
+        public String getItemLabel(int index) {
+            return String.valueOf(index);
+        }
+    };
+
+    @Test
+    public void openCloseCyclesDoNotLeakThreads() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        final int threadsBefore = Thread.getAllStackTraces().size();
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < CYCLES; i++) {
+                    WheelView wheelView = new WheelView(context);
+                    wheelView.setAdapter(ADAPTER);
+                    wheelView.onAttachedToWindow();
+                    wheelView.scrollBy(2000f);
+                    assertTrue(wheelView.isAnimating());
+                    wheelView.onDetachedFromWindow();
+                    assertFalse(wheelView.isAnimating());
+                }
+                assertEquals(0, FrameClock.getInstance().getFrameListenerCount());
+            }
+        });
+
+        int threadsAfter = Thread.getAllStackTraces().size();
+        // 系统 binder 线程可能按需增加，这里只留很小的余量
+        assertTrue("leaked " + (threadsAfter - threadsBefore) + " threads",
+                threadsAfter - threadsBefore <= 2);
+    }
+
+    @Test
+    public void animationResumesOnReattach() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                WheelView wheelView = new WheelView(context);
+                wheelView.setAdapter(ADAPTER);
+                wheelView.onAttachedToWindow();
+                wheelView.scrollBy(2000f);
+                wheelView.onDetachedFromWindow();
+                assertFalse(wheelView.isAnimating());
+
+                wheelView.onAttachedToWindow();
+                assertTrue(wheelView.isAnimating());
+                wheelView.stopAnimation();
+                assertFalse(wheelView.isAnimating());
+                wheelView.onDetachedFromWindow();
+            }
+        });
+    }
+
+    @Test
+    public void rebindCancelsAnimation() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                WheelView wheelView = new WheelView(context);
+                wheelView.setAdapter(new NumericWheelAdapter(0, 59, 1, 2));
+                wheelView.onAttachedToWindow();
+                wheelView.scrollBy(2000f);
+                assertTrue(wheelView.isAnimating());
+
+                wheelView.rebind(new NumericWheelAdapter(0, 59, 1, 2), 7);
+                assertFalse(wheelView.isAnimating());
+                assertFalse(wheelView.isScrolling());
+                assertEquals(7, wheelView.getCurrentItem());
+
+                // 默认循环，越界的下标映射回有效范围
+                wheelView.rebind(ADAPTER, 40);
+                assertEquals(10, wheelView.getCurrentItem());
+                wheelView.onDetachedFromWindow();
+                assertEquals(0, FrameClock.getInstance().getFrameListenerCount());
+            }
+        });
+    }
+
+    @Test
+    public void restoreKeepsScrollAndSkipsScan() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                int widthSpec = View.MeasureSpec.makeMeasureSpec(500, View.MeasureSpec.EXACTLY);
+                int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+                CountingAdapter adapter = new CountingAdapter(10000);
+                WheelView wheelView = new WheelView(context);
+                wheelView.setAdapter(adapter);
+                wheelView.measure(widthSpec, heightSpec);
+                // 默认完整扫描
+                assertTrue(adapter.labelCount >= 10000);
+                wheelView.setCurrentItem(1234);
+                Parcelable state = wheelView.onSaveInstanceState();
+
+                // 重建后是新的实例，只按内容匹配
+                CountingAdapter recreated = new CountingAdapter(10000);
+                WheelView restored = new WheelView(context);
+                restored.setAdapter(recreated);
+                restored.onRestoreInstanceState(state);
+                restored.measure(widthSpec, heightSpec);
+                assertEquals(1234, restored.getCurrentItem());
+                assertEquals(wheelView.getMeasuredHeight(), restored.getMeasuredHeight());
+                // 只读取了计算指纹的抽样项
+                assertTrue("scanned " + recreated.labelCount + " labels", recreated.labelCount <= 64);
+            }
+        });
+    }
+
+    @Test
+    public void savedStateSurvivesParcel() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                int widthSpec = View.MeasureSpec.makeMeasureSpec(2000, View.MeasureSpec.AT_MOST);
+                int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+                WheelView wheelView = new WheelView(context);
+                wheelView.setLoopable(false);
+                wheelView.setLabel("kg");
+                wheelView.setAdapter(new CountingAdapter(10000));
+                wheelView.measure(widthSpec, heightSpec);
+                wheelView.setCurrentItem(9876);
+
+                Parcel parcel = Parcel.obtain();
+                parcel.writeParcelable(wheelView.onSaveInstanceState(), 0);
+                parcel.setDataPosition(0);
+                Parcelable state = parcel.readParcelable(WheelView.class.getClassLoader());
+                parcel.recycle();
+
+                CountingAdapter recreated = new CountingAdapter(10000);
+                WheelView restored = new WheelView(context);
+                restored.setAdapter(recreated);
+                restored.onRestoreInstanceState(state);
+                restored.measure(widthSpec, heightSpec);
+                assertEquals(9876, restored.getCurrentItem());
+                assertEquals(wheelView.getMeasuredWidth(), restored.getMeasuredWidth());
+                assertEquals(wheelView.getMeasuredHeight(), restored.getMeasuredHeight());
+                assertTrue("scanned " + recreated.labelCount + " labels", recreated.labelCount <= 64);
+            }
+        });
+    }
+
+    private static class CountingAdapter implements WheelAdapter {
+        private final int mCount;
+        int labelCount;
+
+        CountingAdapter(int count) {
+            mCount = count;
+        }
+
+        @Override
+        public int getItemsCount() {
+            return mCount;
+        }
+
+        @NonNull
+        @Override
+        public String getItemLabel(int index) {
+            labelCount++;
+            return "item " + index;
+        }
+    }
+}
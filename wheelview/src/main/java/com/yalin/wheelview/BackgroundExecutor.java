@@ -0,0 +1,46 @@
+package com.yalin.wheelview;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 所有 WheelView 共用的后台线程，空闲一段时间后线程自动退出，不会常驻。
+ */
+
+final class BackgroundExecutor {
+    private static final long KEEP_ALIVE_SECONDS = 1;
+
+    private static ThreadPoolExecutor sExecutor;
+    private static Handler sMainHandler;
+
+    private BackgroundExecutor() {
+    }
+
+    static synchronized void execute(Runnable task) {
+        if (sExecutor == null) {
+            sExecutor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "WheelView-background");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            sExecutor.allowCoreThreadTimeOut(true);
+        }
+        sExecutor.execute(task);
+    }
+
+    static synchronized void postToMain(Runnable task) {
+        if (sMainHandler == null) {
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+        sMainHandler.post(task);
+    }
+}
@@ -0,0 +1,59 @@
+package com.yalin.wheelview;
+
+import java.util.ArrayList;
+
+/**
+ * 支持增量数据变化通知的 adapter 基类。
+ * 修改数据后调用对应的 notify 方法，WheelView 只重新测量变化的项，并保持当前选中项和滚动位置，
+ * 不需要重新 setAdapter。notify 方法只能在主线程调用。
+ */
+
+public abstract class BaseWheelAdapter implements WheelAdapter {
+    private final ArrayList<WheelDataObserver> mObservers = new ArrayList<>();
+
+    public void registerDataObserver(WheelDataObserver observer) {
+        if (!mObservers.contains(observer)) {
+            mObservers.add(observer);
+        }
+    }
+
+    public void unregisterDataObserver(WheelDataObserver observer) {
+        mObservers.remove(observer);
+    }
+
+    public void notifyDataSetChanged() {
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onChanged();
+        }
+    }
+
+    public void notifyItemChanged(int position) {
+        notifyItemRangeChanged(position, 1);
+    }
+
+    public void notifyItemRangeChanged(int positionStart, int itemCount) {
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onItemRangeChanged(positionStart, itemCount);
+        }
+    }
+
+    public void notifyItemInserted(int position) {
+        notifyItemRangeInserted(position, 1);
+    }
+
+    public void notifyItemRangeInserted(int positionStart, int itemCount) {
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onItemRangeInserted(positionStart, itemCount);
+        }
+    }
+
+    public void notifyItemRemoved(int position) {
+        notifyItemRangeRemoved(position, 1);
+    }
+
+    public void notifyItemRangeRemoved(int positionStart, int itemCount) {
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onItemRangeRemoved(positionStart, itemCount);
+        }
+    }
+}
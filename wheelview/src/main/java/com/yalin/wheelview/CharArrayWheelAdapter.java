@@ -0,0 +1,21 @@
+package com.yalin.wheelview;
+
+/**
+ * 可以把文字直接写进调用方提供的 char 数组的 adapter，WheelView 绘制时不再为每行创建 String。
+ * {@link #getItemLabel(int)} 仍需实现，供监听器等非绘制路径使用。
+ */
+
+public interface CharArrayWheelAdapter extends WheelAdapter {
+    /**
+     * @return 所有 item 文字的最大长度，WheelView 按此分配缓冲区
+     */
+    int getMaxLabelLength();
+
+    /**
+     * 把第 index 项的文字从 buffer[0] 开始写入
+     *
+     * @param buffer 长度不小于 {@link #getMaxLabelLength()}
+     * @return 写入的字符数
+     */
+    int getItemLabel(int index, char[] buffer);
+}
@@ -0,0 +1,79 @@
+package com.yalin.wheelview;
+
+/**
+ * 滚轮圆柱投影的查找表。
+ * 行在展开后的半圆周上的位置 y（0 到半周长，单位像素）决定了它的弧度，
+ * 每个整数像素位置的 translateY 和纵向缩放在 {@link #setup(int, int, int)} 时算好，
+ * 绘制时只做线性插值，不再每帧调用三角函数。
+ */
+
+final class CylinderGeometry {
+    private float[] mTranslateY = new float[0];
+    private float[] mScale = new float[0];
+    private int mHalfCircumference;
+    private int mRadius;
+    private int mTextHeight;
+
+    /**
+     * @param halfCircumference 半圆周长，即可见区域展开后的总高度
+     * @param radius            圆柱半径
+     * @param textHeight        文字高度，用于让行绕自身中心旋转
+     */
+    void setup(int halfCircumference, int radius, int textHeight) {
+        if (halfCircumference == mHalfCircumference && radius == mRadius && textHeight == mTextHeight) {
+            return;
+        }
+        mHalfCircumference = halfCircumference;
+        mRadius = radius;
+        mTextHeight = textHeight;
+        if (halfCircumference <= 0) {
+            return;
+        }
+        int size = halfCircumference + 1;
+        if (mTranslateY.length < size) {
+            mTranslateY = new float[size];
+            mScale = new float[size];
+        }
+        for (int i = 0; i < size; i++) {
+            double radian = i * Math.PI / halfCircumference;
+            double sin = Math.sin(radian);
+            mScale[i] = (float) sin;
+            mTranslateY[i] = (float) (radius - Math.cos(radian) * radius - sin * textHeight / 2d);
+        }
+    }
+
+    int getHalfCircumference() {
+        return mHalfCircumference;
+    }
+
+    /**
+     * 正好在 0 或半周长上的行与视线平行，不可见
+     */
+    boolean isVisible(float y) {
+        return y > 0 && y < mHalfCircumference;
+    }
+
+    /**
+     * @param y 必须满足 {@link #isVisible(float)}
+     */
+    float getTranslateY(float y) {
+        return interpolate(mTranslateY, y);
+    }
+
+    /**
+     * @param y 必须满足 {@link #isVisible(float)}
+     */
+    float getScale(float y) {
+        return interpolate(mScale, y);
+    }
+
+    private static float interpolate(float[] table, float y) {
+        int i = (int) y;
+        float fraction = y - i;
+        float value = table[i];
+        if (fraction == 0f) {
+            return value;
+        }
+        return value + (table[i + 1] - value) * fraction;
+    }
+}
@@ -0,0 +1,88 @@
+package com.yalin.wheelview;
+
+/**
+ * 指数衰减模型：速度按 v(t) = v0 * e^(-friction * t) 衰减，降到 stopVelocity 时结束。
+ * 位置 x(t) = x0 + v0 / friction * (1 - e^(-friction * t))，终点可以解析地调整。
+ */
+
+public class DecayFlingModel implements FlingModel {
+    public static final float DEFAULT_FRICTION = 2.5f;
+    public static final float DEFAULT_STOP_VELOCITY = 30f;
+
+    private final float mFriction;
+    private final float mStopVelocity;
+
+    private float mStartPosition;
+    private float mVelocity;
+    private float mFinalPosition;
+    private long mDuration;
+
+    public DecayFlingModel() {
+        this(DEFAULT_FRICTION, DEFAULT_STOP_VELOCITY);
+    }
+
+    /**
+     * @param friction     衰减系数，单位 1 / 秒，越大停得越快
+     * @param stopVelocity 速度低于此值（像素 / 秒）时认为停止
+     */
+    public DecayFlingModel(float friction, float stopVelocity) {
+        if (friction <= 0f || stopVelocity <= 0f) {
+            throw new IllegalArgumentException("friction and stopVelocity must be positive");
+        }
+        mFriction = friction;
+        mStopVelocity = stopVelocity;
+    }
+
+    @Override
+    public void fling(float startPosition, float velocity) {
+        mStartPosition = startPosition;
+        mVelocity = velocity;
+        float speed = Math.abs(velocity);
+        if (speed <= mStopVelocity) {
+            mVelocity = 0f;
+            mDuration = 0;
+            mFinalPosition = startPosition;
+            return;
+        }
+        mDuration = (long) (Math.log(speed / mStopVelocity) / mFriction * 1e9);
+        mFinalPosition = startPosition + (velocity - Math.signum(velocity) * mStopVelocity) / mFriction;
+    }
+
+    @Override
+    public void setFinalPosition(float finalPosition) {
+        float distance = finalPosition - mStartPosition;
+        if (distance == 0f) {
+            fling(mStartPosition, 0f);
+            return;
+        }
+        // 由 distance = (|v0| - stopVelocity) / friction 反解初速度
+        fling(mStartPosition, Math.signum(distance) * (Math.abs(distance) * mFriction + mStopVelocity));
+        mFinalPosition = finalPosition;
+    }
+
+    @Override
+    public float getFinalPosition() {
+        return mFinalPosition;
+    }
+
+    @Override
+    public float getPosition(long elapsedNanos) {
+        if (elapsedNanos >= mDuration) {
+            return mFinalPosition;
+        }
+        if (elapsedNanos <= 0) {
+            return mStartPosition;
+        }
+        double seconds = elapsedNanos / 1e9;
+        return (float) (mStartPosition + mVelocity / mFriction * (1 - Math.exp(-mFriction * seconds)));
+    }
+
+    @Override
+    public boolean isFinished(long elapsedNanos) {
+        return elapsedNanos >= mDuration;
+    }
+
+    public long getDuration() {
+        return mDuration;
+    }
+}
@@ -0,0 +1,28 @@
+package com.yalin.wheelview;
+
+/**
+ * 基于时间的惯性滚动模型，位置只由开始后经过的时间决定，与帧率和调度抖动无关。
+ * 实现必须是纯 Java 且结果确定，便于脱离设备做单元测试和调参。
+ */
+
+public interface FlingModel {
+    /**
+     * @param startPosition 起始位置，单位像素
+     * @param velocity      初速度，单位像素 / 秒，方向与位置增大方向一致
+     */
+    void fling(float startPosition, float velocity);
+
+    /**
+     * 调整本次滚动使其正好停在 finalPosition，用于对齐到 item 边界或限制在边界内
+     */
+    void setFinalPosition(float finalPosition);
+
+    float getFinalPosition();
+
+    /**
+     * @param elapsedNanos 从 {@link #fling(float, float)} 开始经过的时间
+     */
+    float getPosition(long elapsedNanos);
+
+    boolean isFinished(long elapsedNanos);
+}
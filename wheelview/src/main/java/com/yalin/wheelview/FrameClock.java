@@ -0,0 +1,146 @@
+package com.yalin.wheelview;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * 进程内共享的帧时钟，所有 WheelView 的滚动动画挂在同一个 vsync 回调上。
+ * API 16 以下没有 Choreographer，退化为主线程 Handler 按 16ms 驱动。
+ * 只能在主线程使用。
+ */
+
+final class FrameClock {
+    interface FrameListener {
+        /**
+         * @param frameTimeNanos 本帧时间戳，与 {@link System#nanoTime()} 同一时基
+         * @return true 表示还需要下一帧，false 表示动画结束，自动移除
+         */
+        boolean doFrame(long frameTimeNanos);
+    }
+
+    private static final long FALLBACK_FRAME_DELAY = 16;
+
+    private static FrameClock sInstance;
+
+    private final ArrayList<FrameListener> mListeners = new ArrayList<>();
+    private FrameListener[] mDispatching = new FrameListener[4];
+
+    private final Driver mDriver;
+    private boolean mFrameScheduled;
+
+    static FrameClock getInstance() {
+        if (sInstance == null) {
+            sInstance = new FrameClock();
+        }
+        return sInstance;
+    }
+
+    private FrameClock() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mDriver = new ChoreographerDriver();
+        } else {
+            mDriver = new HandlerDriver();
+        }
+    }
+
+    void addFrameListener(FrameListener listener) {
+        if (!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+        scheduleFrame();
+    }
+
+    void removeFrameListener(FrameListener listener) {
+        mListeners.remove(listener);
+        if (mListeners.isEmpty() && mFrameScheduled) {
+            mFrameScheduled = false;
+            mDriver.cancelFrame();
+        }
+    }
+
+    boolean hasFrameListener(FrameListener listener) {
+        return mListeners.contains(listener);
+    }
+
+    int getFrameListenerCount() {
+        return mListeners.size();
+    }
+
+    private void scheduleFrame() {
+        if (!mFrameScheduled) {
+            mFrameScheduled = true;
+            mDriver.postFrame();
+        }
+    }
+
+    private void dispatchFrame(long frameTimeNanos) {
+        mFrameScheduled = false;
+        int count = mListeners.size();
+        if (mDispatching.length < count) {
+            mDispatching = new FrameListener[count * 2];
+        }
+        FrameListener[] dispatching = mDispatching;
+        mListeners.toArray(dispatching);
+        for (int i = 0; i < count; i++) {
+            FrameListener listener = dispatching[i];
+            dispatching[i] = null;
+            // 前面的回调可能已经把它移除了
+            if (mListeners.contains(listener) && !listener.doFrame(frameTimeNanos)) {
+                mListeners.remove(listener);
+            }
+        }
+        if (!mListeners.isEmpty()) {
+            scheduleFrame();
+        }
+    }
+
+    private interface Driver {
+        void postFrame();
+
+        void cancelFrame();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private class ChoreographerDriver implements Driver, Choreographer.FrameCallback {
+        private final Choreographer mChoreographer = Choreographer.getInstance();
+
+        @Override
+        public void postFrame() {
+            mChoreographer.postFrameCallback(this);
+        }
+
+        @Override
+        public void cancelFrame() {
+            mChoreographer.removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            dispatchFrame(frameTimeNanos);
+        }
+    }
+
+    private class HandlerDriver implements Driver, Runnable {
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void postFrame() {
+            mHandler.postDelayed(this, FALLBACK_FRAME_DELAY);
+        }
+
+        @Override
+        public void cancelFrame() {
+            mHandler.removeCallbacks(this);
+        }
+
+        @Override
+        public void run() {
+            dispatchFrame(System.nanoTime());
+        }
+    }
+}
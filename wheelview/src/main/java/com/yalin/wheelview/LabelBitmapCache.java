@@ -0,0 +1,207 @@
+package com.yalin.wheelview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+
+/**
+ * 预先渲染好的文字条缓存，按 item 下标和样式（中间 / 外侧）区分。
+ * 文字条是 ALPHA_8 位图，绘制时由画笔颜色着色，绘制一行只需要一次裁剪缩放后的 drawBitmap。
+ * 按字节数限制总大小，超出时按 LRU 淘汰，淘汰的位图放入小容量池中复用，池中的位图也计入总大小。
+ */
+
+final class LabelBitmapCache {
+    static final int STYLE_CENTER = 0;
+    static final int STYLE_OUT = 1;
+
+    /**
+     * 文字条左右留白，避免斜体或字形外伸被截断
+     */
+    static final int PADDING = 2;
+
+    private static final int MAX_POOLED = 4;
+
+    static final class Entry {
+        int key;
+        Bitmap bitmap;
+        int bytes;
+        /**
+         * 文字基线在位图中的纵坐标
+         */
+        int baseline;
+
+        private Entry prev;
+        private Entry next;
+    }
+
+    private final SparseArray<Entry> mEntries = new SparseArray<>();
+    private final ArrayList<Bitmap> mPool = new ArrayList<>(MAX_POOLED);
+    private final Canvas mCanvas = new Canvas();
+    private final Paint.FontMetricsInt mFontMetrics = new Paint.FontMetricsInt();
+
+    private int mMaxBytes;
+    private int mBytes;
+    private int mPoolBytes;
+
+    private Entry mHead;
+    private Entry mTail;
+
+    LabelBitmapCache(int maxBytes) {
+        mMaxBytes = maxBytes;
+    }
+
+    void setMaxBytes(int maxBytes) {
+        mMaxBytes = maxBytes;
+        trimTo(maxBytes);
+    }
+
+    int getMaxBytes() {
+        return mMaxBytes;
+    }
+
+    /**
+     * @return 缓存和复用池中位图实际占用的字节数
+     */
+    int getBytes() {
+        return mBytes + mPoolBytes;
+    }
+
+    /**
+     * @return 缓存或新渲染的文字条；单条超过上限时返回 null，由调用方直接绘制文字
+     */
+    Entry get(int index, int style, char[] text, int length, Paint paint) {
+        int key = index * 2 + style;
+        Entry entry = mEntries.get(key);
+        if (entry != null) {
+            if (entry != mHead) {
+                unlink(entry);
+                linkHead(entry);
+            }
+            return entry;
+        }
+
+        paint.getFontMetricsInt(mFontMetrics);
+        int width = (int) Math.ceil(paint.measureText(text, 0, length)) + PADDING * 2;
+        int height = mFontMetrics.bottom - mFontMetrics.top;
+        int bytes = width * height;
+        if (width <= 0 || height <= 0 || bytes > mMaxBytes) {
+            return null;
+        }
+        trimTo(mMaxBytes - bytes);
+
+        Bitmap bitmap = obtainBitmap(width, height);
+        mCanvas.setBitmap(bitmap);
+        mCanvas.drawText(text, 0, length, PADDING, -mFontMetrics.top, paint);
+        mCanvas.setBitmap(null);
+
+        entry = new Entry();
+        entry.key = key;
+        entry.bitmap = bitmap;
+        entry.bytes = bitmap.getByteCount();
+        entry.baseline = -mFontMetrics.top;
+        mEntries.put(key, entry);
+        mBytes += entry.bytes;
+        linkHead(entry);
+        // 复用的位图可能比估计的大，按实际大小再限制一次；新条目自身超出上限时也会被淘汰
+        trimTo(mMaxBytes);
+        return entry.bitmap != null ? entry : null;
+    }
+
+    void remove(int index) {
+        removeKey(index * 2 + STYLE_CENTER);
+        removeKey(index * 2 + STYLE_OUT);
+    }
+
+    private void removeKey(int key) {
+        Entry entry = mEntries.get(key);
+        if (entry != null) {
+            unlink(entry);
+            mEntries.remove(key);
+            mBytes -= entry.bytes;
+            releaseBitmap(entry.bitmap);
+            entry.bitmap = null;
+        }
+    }
+
+    void clear() {
+        trimTo(0);
+    }
+
+    private void trimTo(int maxBytes) {
+        trimPool(maxBytes);
+        while (mBytes + mPoolBytes > maxBytes && mTail != null) {
+            Entry entry = mTail;
+            unlink(entry);
+            mEntries.remove(entry.key);
+            mBytes -= entry.bytes;
+            releaseBitmap(entry.bitmap);
+            entry.bitmap = null;
+            trimPool(maxBytes);
+        }
+    }
+
+    /**
+     * 先回收池中最早放入的位图，仍然超出时才淘汰缓存条目
+     */
+    private void trimPool(int maxBytes) {
+        while (mBytes + mPoolBytes > maxBytes && !mPool.isEmpty()) {
+            Bitmap bitmap = mPool.remove(0);
+            mPoolBytes -= bitmap.getByteCount();
+            bitmap.recycle();
+        }
+    }
+
+    private Bitmap obtainBitmap(int width, int height) {
+        for (int i = 0, size = mPool.size(); i < size; i++) {
+            Bitmap bitmap = mPool.get(i);
+            // 文字条高度都相同，宽度够用且不过分浪费就直接复用
+            if (bitmap.getHeight() == height && bitmap.getWidth() >= width
+                    && bitmap.getWidth() <= width * 2) {
+                mPool.remove(i);
+                mPoolBytes -= bitmap.getByteCount();
+                bitmap.eraseColor(0);
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+    }
+
+    private void releaseBitmap(Bitmap bitmap) {
+        if (mPool.size() < MAX_POOLED) {
+            mPool.add(bitmap);
+            mPoolBytes += bitmap.getByteCount();
+        } else {
+            bitmap.recycle();
+        }
+    }
+
+    private void linkHead(Entry entry) {
+        entry.prev = null;
+        entry.next = mHead;
+        if (mHead != null) {
+            mHead.prev = entry;
+        }
+        mHead = entry;
+        if (mTail == null) {
+            mTail = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            mHead = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            mTail = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+}
@@ -0,0 +1,182 @@
+package com.yalin.wheelview;
+
+import android.util.SparseArray;
+
+/**
+ * 按 item 下标缓存文字测量结果（宽度和绘制起点），LRU 淘汰。
+ * 缓存不区分画笔配置，字号、对齐方式、adapter 或控件宽度变化时由 WheelView 调用 {@link #clear()}。
+ * 条目对象在 {@link #setMaxSize(int)} 时一次性分配，之后在淘汰和清空后复用，命中和写入都不分配内存。
+ */
+
+final class LabelMeasureCache {
+    static final int DEFAULT_MAX_SIZE = 64;
+
+    static final class Entry {
+        int index;
+
+        int centerWidth;
+        int outWidth;
+
+        int centerStart;
+        int outStart;
+
+        private Entry prev;
+        private Entry next;
+    }
+
+    private SparseArray<Entry> mEntries;
+    private int mMaxSize;
+    private int mSize;
+
+    /**
+     * 最近使用的在头部
+     */
+    private Entry mHead;
+    private Entry mTail;
+    private Entry mFree;
+
+    private long mHitCount;
+    private long mMissCount;
+
+    LabelMeasureCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        clear();
+        mMaxSize = maxSize;
+        mEntries = new SparseArray<>(maxSize);
+        mFree = null;
+        for (int i = 0; i < maxSize; i++) {
+            recycle(new Entry());
+        }
+    }
+
+    int getMaxSize() {
+        return mMaxSize;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * @return 命中时返回条目并移到队头，未命中返回 null
+     */
+    Entry get(int index) {
+        Entry entry = mEntries.get(index);
+        if (entry == null) {
+            mMissCount++;
+            return null;
+        }
+        mHitCount++;
+        if (entry != mHead) {
+            unlink(entry);
+            linkHead(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * 取得一个新条目放在队头，调用方负责填充测量结果
+     */
+    Entry put(int index) {
+        Entry entry = mEntries.get(index);
+        if (entry != null) {
+            unlink(entry);
+        } else {
+            if (mSize >= mMaxSize) {
+                entry = mTail;
+                unlink(entry);
+                mEntries.remove(entry.index);
+            } else {
+                entry = obtain();
+                mSize++;
+            }
+            entry.index = index;
+            mEntries.put(index, entry);
+        }
+        linkHead(entry);
+        return entry;
+    }
+
+    void remove(int index) {
+        Entry entry = mEntries.get(index);
+        if (entry != null) {
+            mEntries.remove(index);
+            unlink(entry);
+            recycle(entry);
+            mSize--;
+        }
+    }
+
+    void clear() {
+        while (mHead != null) {
+            Entry entry = mHead;
+            unlink(entry);
+            recycle(entry);
+        }
+        if (mEntries != null) {
+            mEntries.clear();
+        }
+        mSize = 0;
+    }
+
+    long getHitCount() {
+        return mHitCount;
+    }
+
+    long getMissCount() {
+        return mMissCount;
+    }
+
+    void resetStats() {
+        mHitCount = 0;
+        mMissCount = 0;
+    }
+
+    /**
+     * 空闲条目和已用条目合计始终为 maxSize，未满时空闲链表不会为空
+     */
+    private Entry obtain() {
+        Entry entry = mFree;
+        mFree = entry.next;
+        entry.next = null;
+        return entry;
+    }
+
+    private void recycle(Entry entry) {
+        entry.next = mFree;
+        mFree = entry;
+    }
+
+    private void linkHead(Entry entry) {
+        entry.prev = null;
+        entry.next = mHead;
+        if (mHead != null) {
+            mHead.prev = entry;
+        }
+        mHead = entry;
+        if (mTail == null) {
+            mTail = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            mHead = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            mTail = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+}
@@ -0,0 +1,147 @@
+package com.yalin.wheelview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * 等差整数选择，适用于小时、分钟、年份、价格等，格式化过程不分配内存。
+ * 文字格式为 前缀 + 补零后的数字 + 后缀，例如 prefix = "¥"、minDigits = 2 时 5 显示为 "¥05"。
+ */
+
+public class NumericWheelAdapter implements CharArrayWheelAdapter {
+    private final int mMinValue;
+    private final int mStep;
+    private final int mCount;
+    private final int mMinDigits;
+    private final String mPrefix;
+    private final String mSuffix;
+    private final int mMaxLabelLength;
+
+    public NumericWheelAdapter(int minValue, int maxValue) {
+        this(minValue, maxValue, 1, 0, null, null);
+    }
+
+    public NumericWheelAdapter(int minValue, int maxValue, int step, int minDigits) {
+        this(minValue, maxValue, step, minDigits, null, null);
+    }
+
+    /**
+     * @param step      相邻两项的差，必须大于 0
+     * @param minDigits 数字部分最少位数，不足时前面补 0
+     * @param prefix    可为 null
+     * @param suffix    可为 null
+     */
+    public NumericWheelAdapter(int minValue, int maxValue, int step, int minDigits,
+                               String prefix, String suffix) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step <= 0");
+        }
+        if (maxValue < minValue) {
+            throw new IllegalArgumentException("maxValue < minValue");
+        }
+        long count = ((long) maxValue - minValue) / step + 1;
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many items: " + count);
+        }
+        mMinValue = minValue;
+        mStep = step;
+        mCount = (int) count;
+        mMinDigits = minDigits;
+        mPrefix = prefix == null ? "" : prefix;
+        mSuffix = suffix == null ? "" : suffix;
+        int digits = Math.max(minDigits, Math.max(digitCount(minValue), digitCount(maxValue)));
+        mMaxLabelLength = mPrefix.length() + 1 + digits + mSuffix.length();
+    }
+
+    public int getValue(int index) {
+        return mMinValue + index * mStep;
+    }
+
+    /**
+     * @return value 对应的下标，不在序列中时返回最接近且不大于它的一项
+     */
+    public int indexOf(int value) {
+        int index = (int) (((long) value - mMinValue) / mStep);
+        return Math.max(0, Math.min(mCount - 1, index));
+    }
+
+    @Override
+    public int getItemsCount() {
+        return mCount;
+    }
+
+    @NonNull
+    @Override
+    public String getItemLabel(int index) {
+        char[] buffer = new char[mMaxLabelLength];
+        return new String(buffer, 0, getItemLabel(index, buffer));
+    }
+
+    @Override
+    public int getMaxLabelLength() {
+        return mMaxLabelLength;
+    }
+
+    @Override
+    public int getItemLabel(int index, char[] buffer) {
+        int length = 0;
+        int prefixLength = mPrefix.length();
+        mPrefix.getChars(0, prefixLength, buffer, 0);
+        length += prefixLength;
+
+        long value = getValue(index);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int digits = Math.max(mMinDigits, digitCount(value));
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+
+        int suffixLength = mSuffix.length();
+        mSuffix.getChars(0, suffixLength, buffer, length);
+        return length + suffixLength;
+    }
+
+    /**
+     * 参数相同的实例文字完全相同，{@link WheelView#setSharedMeasureEnabled(boolean)} 时可以共享测量结果
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        NumericWheelAdapter that = (NumericWheelAdapter) o;
+        return mMinValue == that.mMinValue && mStep == that.mStep && mCount == that.mCount
+                && mMinDigits == that.mMinDigits && mPrefix.equals(that.mPrefix)
+                && mSuffix.equals(that.mSuffix);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mMinValue;
+        result = 31 * result + mStep;
+        result = 31 * result + mCount;
+        result = 31 * result + mMinDigits;
+        result = 31 * result + mPrefix.hashCode();
+        result = 31 * result + mSuffix.hashCode();
+        return result;
+    }
+
+    private static int digitCount(long value) {
+        if (value < 0) {
+            value = -value;
+        }
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
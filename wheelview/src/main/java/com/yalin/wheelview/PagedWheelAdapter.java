@@ -0,0 +1,220 @@
+package com.yalin.wheelview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 分页加载文字的 adapter，适用于数据库等数据量很大的来源。
+ * WheelView 根据可见区域请求附近的页，页在后台线程通过 {@link #loadPage(int, int)} 加载，
+ * 加载完成前显示占位文字，加载后通过 {@link #notifyItemRangeChanged(int, int)} 通知刷新；
+ * 离可见区域最远的页在超出 maxPages 后被淘汰，内存占用与数据总量无关。
+ * 除 {@link #loadPage(int, int)} 外的方法都只能在主线程调用。
+ */
+
+public abstract class PagedWheelAdapter extends BaseWheelAdapter {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_MAX_PAGES = 8;
+    public static final String DEFAULT_PLACEHOLDER = "…";
+
+    private static final Executor DEFAULT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            BackgroundExecutor.execute(command);
+        }
+    };
+
+    private final int mPageSize;
+    private final int mMaxPages;
+    private final Executor mExecutor;
+    private String mPlaceholder = DEFAULT_PLACEHOLDER;
+
+    private final SparseArray<String[]> mPages = new SparseArray<>();
+    private final SparseBooleanArray mLoadingPages = new SparseBooleanArray();
+
+    private int mCenterPage = -1;
+    private boolean mLoop;
+    /**
+     * {@link #invalidatePages()} 后加一，丢弃之前发出的请求结果
+     */
+    private int mGeneration;
+
+    public PagedWheelAdapter() {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * @param maxPages 最多同时保留的页数，至少为 3，保证可见区域前后各一页
+     * @param executor 执行 {@link #loadPage(int, int)} 的线程池
+     */
+    public PagedWheelAdapter(int pageSize, int maxPages, Executor executor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize <= 0");
+        }
+        mPageSize = pageSize;
+        mMaxPages = Math.max(3, maxPages);
+        mExecutor = executor;
+    }
+
+    /**
+     * 在后台线程加载 [start, start + count) 范围的文字，返回数量少于 count 时剩余项显示占位文字
+     */
+    @WorkerThread
+    @NonNull
+    protected abstract List<String> loadPage(int start, int count);
+
+    public void setPlaceholder(@NonNull String placeholder) {
+        mPlaceholder = placeholder;
+    }
+
+    @NonNull
+    public String getPlaceholder() {
+        return mPlaceholder;
+    }
+
+    public int getPageSize() {
+        return mPageSize;
+    }
+
+    public boolean isItemLoaded(int index) {
+        String[] page = mPages.get(index / mPageSize);
+        return page != null && page[index % mPageSize] != null;
+    }
+
+    /**
+     * 已加载时返回文字，否则发起该页的加载并返回占位文字
+     */
+    @NonNull
+    @Override
+    public String getItemLabel(int index) {
+        int pageIndex = index / mPageSize;
+        String[] page = mPages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return mPlaceholder;
+        }
+        String label = page[index % mPageSize];
+        return label != null ? label : mPlaceholder;
+    }
+
+    /**
+     * 丢弃所有已加载的页，数据源变化后调用
+     */
+    public void invalidatePages() {
+        mGeneration++;
+        mPages.clear();
+        mLoadingPages.clear();
+        mCenterPage = -1;
+    }
+
+    /**
+     * 由 WheelView 在绘制时告知当前中心位置，预取前后相邻的页并淘汰远处的页
+     *
+     * @param loop 循环模式下窗口越过两端时从另一端取
+     */
+    void onVisibleWindowChanged(int centerIndex, int radius, boolean loop) {
+        int count = getItemsCount();
+        if (count <= 0) {
+            return;
+        }
+        int centerPage = centerIndex / mPageSize;
+        if (centerPage == mCenterPage && loop == mLoop) {
+            return;
+        }
+        mCenterPage = centerPage;
+        mLoop = loop;
+        int offset = -radius;
+        while (true) {
+            int index = centerIndex + offset;
+            if (loop) {
+                index = WheelMath.loopMappingIndex(index, count);
+            }
+            if (index >= 0 && index < count) {
+                requestPage(index / mPageSize);
+            }
+            if (offset >= radius) {
+                break;
+            }
+            offset = Math.min(offset + mPageSize, radius);
+        }
+        trimPages((count + mPageSize - 1) / mPageSize);
+    }
+
+    private void requestPage(final int pageIndex) {
+        if (mPages.get(pageIndex) != null || mLoadingPages.get(pageIndex)) {
+            return;
+        }
+        mLoadingPages.put(pageIndex, true);
+        final int generation = mGeneration;
+        final int start = pageIndex * mPageSize;
+        final int count = Math.min(mPageSize, getItemsCount() - start);
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<String> result;
+                try {
+                    result = loadPage(start, count);
+                } catch (RuntimeException e) {
+                    // 加载失败时保持占位，下次需要这一页时重试
+                    result = null;
+                }
+                final List<String> labels = result;
+                BackgroundExecutor.postToMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPageLoaded(generation, pageIndex, labels);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onPageLoaded(int generation, int pageIndex, List<String> labels) {
+        if (generation != mGeneration) {
+            return;
+        }
+        mLoadingPages.delete(pageIndex);
+        if (labels == null) {
+            return;
+        }
+        String[] page = new String[mPageSize];
+        int count = Math.min(labels.size(), mPageSize);
+        for (int i = 0; i < count; i++) {
+            page[i] = labels.get(i);
+        }
+        mPages.put(pageIndex, page);
+        trimPages((getItemsCount() + mPageSize - 1) / mPageSize);
+        notifyItemRangeChanged(pageIndex * mPageSize, count);
+    }
+
+    /**
+     * @return page 与 centerPage 相隔的页数，循环模式下两端相接，取较近的方向
+     */
+    static int pageDistance(int page, int centerPage, int pageCount, boolean loop) {
+        int distance = Math.abs(page - centerPage);
+        return loop ? Math.min(distance, pageCount - distance) : distance;
+    }
+
+    /**
+     * 淘汰离中心页最远的页，循环模式下按环形距离计算
+     */
+    private void trimPages(int pageCount) {
+        while (mPages.size() > mMaxPages) {
+            int farthestKey = -1;
+            int farthestDistance = -1;
+            for (int i = 0, size = mPages.size(); i < size; i++) {
+                int key = mPages.keyAt(i);
+                int distance = pageDistance(key, mCenterPage, pageCount, mLoop);
+                if (distance > farthestDistance) {
+                    farthestDistance = distance;
+                    farthestKey = key;
+                }
+            }
+            mPages.remove(farthestKey);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.yalin.wheelview;
+
+import android.graphics.Typeface;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 进程内共享的最大文字宽高，同一屏上字体、字号和数据都相同的多个 WheelView 只需测量一次。
+ * 按 LRU 最多保存 {@link #MAX_SIZE} 组，所有方法线程安全。
+ * 只弱引用 adapter，不会因为缓存而泄漏；adapter 实现了按内容比较的 equals 和 hashCode 时，
+ * 不同实例之间也能共享，否则只有同一个实例能命中。
+ */
+
+final class SharedMeasureCache {
+    static final int MAX_SIZE = 32;
+
+    static final class Key {
+        private final Typeface mTypeface;
+        private final float mTextSize;
+        private final float mTextScaleX;
+        private final int mStrategy;
+        private final Class<?> mAdapterClass;
+        private final int mAdapterHash;
+        private final int mItemCount;
+        private final WeakReference<WheelAdapter> mAdapter;
+
+        Key(Typeface typeface, float textSize, float textScaleX, int strategy, WheelAdapter adapter) {
+            mTypeface = typeface;
+            mTextSize = textSize;
+            mTextScaleX = textScaleX;
+            mStrategy = strategy;
+            mAdapterClass = adapter.getClass();
+            mAdapterHash = adapter.hashCode();
+            mItemCount = adapter.getItemsCount();
+            mAdapter = new WeakReference<>(adapter);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            if (mTextSize != key.mTextSize || mTextScaleX != key.mTextScaleX
+                    || mStrategy != key.mStrategy || mAdapterClass != key.mAdapterClass
+                    || mAdapterHash != key.mAdapterHash || mItemCount != key.mItemCount
+                    || (mTypeface == null ? key.mTypeface != null : !mTypeface.equals(key.mTypeface))) {
+                return false;
+            }
+            // 已被回收的 adapter 不再与任何 key 相等，对应的条目等待 LRU 淘汰
+            WheelAdapter adapter = mAdapter.get();
+            WheelAdapter other = key.mAdapter.get();
+            return adapter != null && other != null && (adapter == other || adapter.equals(other));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mTypeface != null ? mTypeface.hashCode() : 0;
+            result = 31 * result + Float.floatToIntBits(mTextSize);
+            result = 31 * result + Float.floatToIntBits(mTextScaleX);
+            result = 31 * result + mStrategy;
+            result = 31 * result + mAdapterClass.hashCode();
+            result = 31 * result + mAdapterHash;
+            result = 31 * result + mItemCount;
+            return result;
+        }
+    }
+
+    /**
+     * 高位是最大宽度，低位是最大高度
+     */
+    private static final Map<Key, Long> sEntries = new LinkedHashMap<Key, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    private SharedMeasureCache() {
+    }
+
+    /**
+     * @return 高 32 位是最大宽度，低 32 位是最大高度，没有时返回 -1
+     */
+    static long get(Key key) {
+        synchronized (sEntries) {
+            Long value = sEntries.get(key);
+            return value != null ? value : -1L;
+        }
+    }
+
+    static void put(Key key, int maxTextWidth, int maxTextHeight) {
+        synchronized (sEntries) {
+            sEntries.put(key, pack(maxTextWidth, maxTextHeight));
+        }
+    }
+
+    static void remove(Key key) {
+        synchronized (sEntries) {
+            sEntries.remove(key);
+        }
+    }
+
+    static void clear() {
+        synchronized (sEntries) {
+            sEntries.clear();
+        }
+    }
+
+    static int size() {
+        synchronized (sEntries) {
+            return sEntries.size();
+        }
+    }
+
+    static long pack(int maxTextWidth, int maxTextHeight) {
+        return ((long) maxTextWidth << 32) | (maxTextHeight & 0xffffffffL);
+    }
+
+    static int unpackWidth(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    static int unpackHeight(long packed) {
+        return (int) packed;
+    }
+}
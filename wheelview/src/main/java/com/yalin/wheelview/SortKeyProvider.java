@@ -0,0 +1,16 @@
+package com.yalin.wheelview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+/**
+ * adapter 可选实现的接口，为 {@link WheelView#jumpToPrefix(String)} 提供查找用的键，
+ * 例如拼音、去掉前缀符号的名称或 ISO 代码。未实现时按 {@link WheelAdapter#getItemLabel(int)} 查找。
+ * 索引在后台线程建立，实现必须允许在后台线程调用。
+ */
+
+public interface SortKeyProvider {
+    @WorkerThread
+    @NonNull
+    String getSortKey(int index);
+}
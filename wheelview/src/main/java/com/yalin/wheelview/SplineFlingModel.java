@@ -0,0 +1,121 @@
+package com.yalin.wheelview;
+
+/**
+ * 与系统 OverScroller 相同的样条惯性曲线，手感和列表滚动一致。
+ * 时长和距离由初速度决定，调整终点时保持时长不变，按比例缩放距离。
+ */
+
+public class SplineFlingModel implements FlingModel {
+    private static final float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+    private static final float INFLEXION = 0.35f;
+    private static final float START_TENSION = 0.5f;
+    private static final float END_TENSION = 1.0f;
+    private static final float P1 = START_TENSION * INFLEXION;
+    private static final float P2 = 1.0f - END_TENSION * (1.0f - INFLEXION);
+    private static final float GRAVITY_EARTH = 9.80665f;
+    private static final float INCHES_PER_METER = 39.37f;
+
+    /**
+     * 与 ViewConfiguration.getScrollFriction() 的默认值相同
+     */
+    public static final float DEFAULT_SCROLL_FRICTION = 0.015f;
+
+    private static final int NB_SAMPLES = 100;
+    private static final float[] SPLINE_POSITION = new float[NB_SAMPLES + 1];
+
+    static {
+        float xMin = 0.0f;
+        for (int i = 0; i < NB_SAMPLES; i++) {
+            final float alpha = (float) i / NB_SAMPLES;
+            float xMax = 1.0f;
+            float x;
+            float tx;
+            float coef;
+            while (true) {
+                x = xMin + (xMax - xMin) / 2.0f;
+                coef = 3.0f * x * (1.0f - x);
+                tx = coef * ((1.0f - x) * P1 + x * P2) + x * x * x;
+                if (Math.abs(tx - alpha) < 1E-5) {
+                    break;
+                }
+                if (tx > alpha) {
+                    xMax = x;
+                } else {
+                    xMin = x;
+                }
+            }
+            SPLINE_POSITION[i] = coef * ((1.0f - x) * START_TENSION + x) + x * x * x;
+        }
+        SPLINE_POSITION[NB_SAMPLES] = 1.0f;
+    }
+
+    private final float mDecelerationCoefficient;
+
+    private float mStartPosition;
+    private float mDistance;
+    private long mDuration;
+
+    /**
+     * @param density 屏幕密度，即 DisplayMetrics.density
+     */
+    public SplineFlingModel(float density) {
+        this(density, DEFAULT_SCROLL_FRICTION);
+    }
+
+    public SplineFlingModel(float density, float scrollFriction) {
+        float ppi = density * 160.0f;
+        mDecelerationCoefficient = scrollFriction * GRAVITY_EARTH * INCHES_PER_METER * ppi * 0.84f;
+    }
+
+    @Override
+    public void fling(float startPosition, float velocity) {
+        mStartPosition = startPosition;
+        if (velocity == 0f) {
+            mDistance = 0f;
+            mDuration = 0;
+            return;
+        }
+        double l = Math.log(INFLEXION * Math.abs(velocity) / mDecelerationCoefficient);
+        double decelMinusOne = DECELERATION_RATE - 1.0;
+        mDuration = (long) (1e9 * Math.exp(l / decelMinusOne));
+        mDistance = (float) (Math.signum(velocity) * mDecelerationCoefficient
+                * Math.exp(DECELERATION_RATE / decelMinusOne * l));
+    }
+
+    @Override
+    public void setFinalPosition(float finalPosition) {
+        mDistance = finalPosition - mStartPosition;
+    }
+
+    @Override
+    public float getFinalPosition() {
+        return mStartPosition + mDistance;
+    }
+
+    @Override
+    public float getPosition(long elapsedNanos) {
+        if (elapsedNanos >= mDuration) {
+            return getFinalPosition();
+        }
+        if (elapsedNanos <= 0) {
+            return mStartPosition;
+        }
+        float t = (float) elapsedNanos / mDuration;
+        int index = (int) (NB_SAMPLES * t);
+        float tInf = (float) index / NB_SAMPLES;
+        float tSup = (float) (index + 1) / NB_SAMPLES;
+        float dInf = SPLINE_POSITION[index];
+        float dSup = SPLINE_POSITION[index + 1];
+        float distanceCoef = dInf + (t - tInf) / (tSup - tInf) * (dSup - dInf);
+        return mStartPosition + mDistance * distanceCoef;
+    }
+
+    @Override
+    public boolean isFinished(long elapsedNanos) {
+        return elapsedNanos >= mDuration;
+    }
+
+    public long getDuration() {
+        return mDuration;
+    }
+}
@@ -0,0 +1,60 @@
+package com.yalin.wheelview;
+
+/**
+ * 固定时长的减速滚动，x(t) = x0 + d * (1 - (1 - t / T)^2)，与 DecelerateInterpolator 的曲线相同。
+ * 不论距离多远都在设定的时长内结束，用于程序触发的滚动。
+ */
+
+final class TimedScrollModel implements FlingModel {
+    private long mDuration;
+    private float mStartPosition;
+    private float mDistance;
+
+    TimedScrollModel(long durationNanos) {
+        setDuration(durationNanos);
+    }
+
+    void setDuration(long durationNanos) {
+        mDuration = Math.max(0L, durationNanos);
+    }
+
+    long getDuration() {
+        return mDuration;
+    }
+
+    /**
+     * 初速度为 2d / T，按此反推滚动距离
+     */
+    @Override
+    public void fling(float startPosition, float velocity) {
+        mStartPosition = startPosition;
+        mDistance = (float) (velocity * (mDuration / 1e9) / 2);
+    }
+
+    @Override
+    public void setFinalPosition(float finalPosition) {
+        mDistance = finalPosition - mStartPosition;
+    }
+
+    @Override
+    public float getFinalPosition() {
+        return mStartPosition + mDistance;
+    }
+
+    @Override
+    public float getPosition(long elapsedNanos) {
+        if (elapsedNanos >= mDuration) {
+            return getFinalPosition();
+        }
+        if (elapsedNanos <= 0) {
+            return mStartPosition;
+        }
+        float remaining = 1f - (float) elapsedNanos / mDuration;
+        return mStartPosition + mDistance * (1f - remaining * remaining);
+    }
+
+    @Override
+    public boolean isFinished(long elapsedNanos) {
+        return elapsedNanos >= mDuration;
+    }
+}
@@ -0,0 +1,228 @@
+package com.yalin.wheelview;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 多级联动选择，例如省 / 市 / 区、年 / 月 / 日。
+ * 每一列声明自己依赖的父列，父列选中项变化时只重新计算受影响的子列；
+ * 子列 adapter 按 {@link ChildAdapterProvider#getChildKey(WheelAdapter, int)} 返回的 key 缓存复用，
+ * key 不变时子列及其后代都不会被触碰。同一帧内的多次变化合并处理，父列仍在滚动时推迟到停止后再更新。
+ * 联动由选中回调驱动，直接调用 {@link WheelView#setCurrentItem(int)} 不会触发，需要通过
+ * {@link #setCurrentItem(WheelView, int)} 设置。
+ * 只能在主线程使用。
+ */
+
+public class WheelCascade {
+    public interface ChildAdapterProvider {
+        /**
+         * @return 标识子列数据的 key，需要正确实现 equals 和 hashCode，相同 key 复用同一个 adapter
+         */
+        Object getChildKey(WheelAdapter parentAdapter, int parentPosition);
+
+        WheelAdapter createChildAdapter(Object key);
+    }
+
+    public interface OnCascadeSelectedListener {
+        /**
+         * @param positions 按添加顺序排列的各列选中位置
+         */
+        void onCascadeSelected(WheelCascade cascade, int[] positions);
+    }
+
+    public static final int DEFAULT_ADAPTER_CACHE_SIZE = 16;
+
+    private final ArrayList<Column> mColumns = new ArrayList<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final int mAdapterCacheSize;
+
+    private OnCascadeSelectedListener mListener;
+    private boolean mUpdateScheduled;
+
+    private final Runnable mUpdateRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mUpdateScheduled = false;
+            performUpdate();
+        }
+    };
+
+    public WheelCascade() {
+        this(DEFAULT_ADAPTER_CACHE_SIZE);
+    }
+
+    /**
+     * @param adapterCacheSize 每一列最多缓存的子 adapter 数
+     */
+    public WheelCascade(int adapterCacheSize) {
+        mAdapterCacheSize = adapterCacheSize;
+    }
+
+    /**
+     * 添加第一列，WheelView 的 OnItemSelectedListener 由 WheelCascade 接管
+     */
+    public WheelCascade addRoot(WheelView wheelView, WheelAdapter adapter) {
+        Column column = addColumn(wheelView, null);
+        column.adapter = adapter;
+        wheelView.setAdapter(adapter);
+        return this;
+    }
+
+    /**
+     * 添加依赖 parent 的一列，parent 必须已经添加。
+     * 子列切换 adapter 时会重新测量文字，调用方可以对 child 开启
+     * {@link WheelView#setSharedMeasureEnabled(boolean)}，切回缓存中的 adapter 时直接使用之前的结果
+     */
+    public WheelCascade addChild(WheelView parent, WheelView child, ChildAdapterProvider provider) {
+        Column parentColumn = findColumn(parent);
+        if (parentColumn == null) {
+            throw new IllegalArgumentException("parent is not part of this cascade");
+        }
+        Column column = addColumn(child, provider);
+        parentColumn.children.add(column);
+        parentColumn.dirty = true;
+        scheduleUpdate();
+        return this;
+    }
+
+    public void setOnCascadeSelectedListener(OnCascadeSelectedListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * 选中 wheelView 的第 position 项，并按新的选中项更新它的子列
+     */
+    public void setCurrentItem(WheelView wheelView, int position) {
+        Column column = findColumn(wheelView);
+        if (column == null) {
+            throw new IllegalArgumentException("wheelView is not part of this cascade");
+        }
+        wheelView.setCurrentItem(position);
+        column.dirty = true;
+        scheduleUpdate();
+    }
+
+    /**
+     * 立即处理尚未完成的联动更新
+     */
+    public void flush() {
+        if (mUpdateScheduled) {
+            mHandler.removeCallbacks(mUpdateRunnable);
+            mUpdateScheduled = false;
+            performUpdate();
+        }
+    }
+
+    public int[] getSelectedPositions() {
+        int[] positions = new int[mColumns.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = mColumns.get(i).view.getCurrentItem();
+        }
+        return positions;
+    }
+
+    private Column addColumn(WheelView wheelView, ChildAdapterProvider provider) {
+        if (findColumn(wheelView) != null) {
+            throw new IllegalArgumentException("wheelView already added");
+        }
+        final Column column = new Column(wheelView, provider, mAdapterCacheSize);
+        mColumns.add(column);
+        wheelView.setOnItemSelectedListener(new WheelView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(WheelAdapter adapter, int position) {
+                column.dirty = true;
+                scheduleUpdate();
+            }
+        });
+        return column;
+    }
+
+    private Column findColumn(WheelView wheelView) {
+        for (int i = 0, size = mColumns.size(); i < size; i++) {
+            if (mColumns.get(i).view == wheelView) {
+                return mColumns.get(i);
+            }
+        }
+        return null;
+    }
+
+    private void scheduleUpdate() {
+        if (!mUpdateScheduled) {
+            mUpdateScheduled = true;
+            mHandler.post(mUpdateRunnable);
+        }
+    }
+
+    private void performUpdate() {
+        boolean deferred = false;
+        // 列按添加顺序排列，父列总在子列之前，一次遍历即可自上而下传播
+        for (int i = 0, size = mColumns.size(); i < size; i++) {
+            Column column = mColumns.get(i);
+            if (!column.dirty) {
+                continue;
+            }
+            if (column.view.isScrolling()) {
+                // 还在滚动，停下后会再次回调 onItemSelected
+                deferred = true;
+                continue;
+            }
+            column.dirty = false;
+            int position = column.view.getCurrentItem();
+            for (int j = 0, childCount = column.children.size(); j < childCount; j++) {
+                updateChild(column.children.get(j), column.adapter, position);
+            }
+        }
+        if (!deferred && mListener != null) {
+            mListener.onCascadeSelected(this, getSelectedPositions());
+        }
+    }
+
+    private void updateChild(Column child, WheelAdapter parentAdapter, int parentPosition) {
+        Object key = parentAdapter == null || parentPosition < 0
+                ? null : child.provider.getChildKey(parentAdapter, parentPosition);
+        if (child.bound && (key == null ? child.key == null : key.equals(child.key))) {
+            return;
+        }
+        child.bound = true;
+        child.key = key;
+        WheelAdapter adapter = null;
+        if (key != null) {
+            adapter = child.adapterCache.get(key);
+            if (adapter == null) {
+                adapter = child.provider.createChildAdapter(key);
+                child.adapterCache.put(key, adapter);
+            }
+        }
+        child.adapter = adapter;
+        // rebind 只重置状态，同一个 adapter 沿用测量结果
+        child.view.rebind(adapter, 0);
+        child.dirty = true;
+    }
+
+    private static class Column {
+        final WheelView view;
+        final ChildAdapterProvider provider;
+        final ArrayList<Column> children = new ArrayList<>();
+        final LinkedHashMap<Object, WheelAdapter> adapterCache;
+
+        WheelAdapter adapter;
+        Object key;
+        boolean bound;
+        boolean dirty;
+
+        Column(WheelView view, ChildAdapterProvider provider, final int cacheSize) {
+            this.view = view;
+            this.provider = provider;
+            adapterCache = new LinkedHashMap<Object, WheelAdapter>(cacheSize, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, WheelAdapter> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+        }
+    }
+}
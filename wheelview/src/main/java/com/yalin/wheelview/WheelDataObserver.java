@@ -0,0 +1,22 @@
+package com.yalin.wheelview;
+
+/**
+ * {@link BaseWheelAdapter} 数据变化的回调，所有方法都在主线程调用
+ */
+
+public abstract class WheelDataObserver {
+    /**
+     * 数据整体变化，无法给出具体范围
+     */
+    public void onChanged() {
+    }
+
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+    }
+
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+    }
+
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+    }
+}
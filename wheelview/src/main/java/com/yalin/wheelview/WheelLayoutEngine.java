@@ -0,0 +1,417 @@
+package com.yalin.wheelview;
+
+/**
+ * 滚轮的布局和滚动状态，不依赖 Android，可以在 JVM 上测试，也可以给其他渲染方式复用。
+ * 给定 item 数量、行高、可见行数和滚动距离，{@link #layout()} 算出每个可见行对应的下标和圆柱投影变换。
+ * 滚动距离以初始位置为原点，向下滚动（下标增大）为正，用 long 保存，
+ * 百万级 item 的非循环滚轮也不会溢出；所有计算都是常数时间，与滚动距离和 item 数量无关。
+ */
+
+public final class WheelLayoutEngine {
+    /**
+     * 非循环模式下拖动越过两端时允许超出的距离，按行高的比例
+     */
+    private static final float DRAG_OVERSCROLL = 0.3f;
+
+    private final CylinderGeometry mGeometry = new CylinderGeometry();
+
+    private int mItemCount;
+    private int mItemsVisible;
+    private boolean mLoop = true;
+    private float mItemHeight;
+    private int mTextHeight;
+
+    private int mHalfCircumference;
+    private int mRadius;
+    private int mHeight;
+
+    /**
+     * 滚动距离为 0 时中间的下标，删除前面的数据后可能为负数
+     */
+    private int mInitPosition;
+    /**
+     * 为 false 时 {@link #ensureInitPosition()} 按默认规则选择初始位置
+     */
+    private boolean mInitPositionSet;
+    private long mTotalScrollY;
+    /**
+     * 拖动时尚未计入滚动位置的不足一像素的部分，高采样率下每个样本的位移很小，逐个取整会丢失或放大距离
+     */
+    private float mDragRemainder;
+
+    private int mPreCurrentIndex;
+    /**
+     * 中心行相对 item 边界向下滚过的距离，[0, itemHeight)
+     */
+    private float mItemHeightOffset;
+    private int[] mVisibleItems;
+    private float[] mRowTranslateY;
+    private float[] mRowScale;
+    private boolean[] mRowVisible;
+
+    public WheelLayoutEngine(int itemsVisible) {
+        setItemsVisible(itemsVisible);
+    }
+
+    public void setItemsVisible(int itemsVisible) {
+        if (itemsVisible <= 0) {
+            throw new IllegalArgumentException("itemsVisible <= 0");
+        }
+        mItemsVisible = itemsVisible;
+        mVisibleItems = new int[itemsVisible];
+        mRowTranslateY = new float[itemsVisible];
+        mRowScale = new float[itemsVisible];
+        mRowVisible = new boolean[itemsVisible];
+        setItemHeight(mItemHeight, mTextHeight);
+    }
+
+    public int getItemsVisible() {
+        return mItemsVisible;
+    }
+
+    public void setItemCount(int itemCount) {
+        mItemCount = itemCount;
+    }
+
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    public void setLoop(boolean loop) {
+        mLoop = loop;
+    }
+
+    public boolean isLoop() {
+        return mLoop;
+    }
+
+    /**
+     * 设置行高并重新计算圆柱尺寸
+     *
+     * @param textHeight 文字高度，用于让行绕自身中心旋转
+     */
+    public void setItemHeight(float itemHeight, int textHeight) {
+        mItemHeight = itemHeight;
+        mTextHeight = textHeight;
+        mHalfCircumference = (int) (itemHeight * (mItemsVisible - 1));
+        mHeight = (int) (mHalfCircumference * 2 / Math.PI);
+        mRadius = (int) (mHalfCircumference / Math.PI);
+        mGeometry.setup(mHalfCircumference, mRadius, textHeight);
+    }
+
+    public float getItemHeight() {
+        return mItemHeight;
+    }
+
+    public int getHalfCircumference() {
+        return mHalfCircumference;
+    }
+
+    public int getRadius() {
+        return mRadius;
+    }
+
+    /**
+     * @return 圆柱投影后的总高度，即控件需要的高度
+     */
+    public int getHeight() {
+        return mHeight;
+    }
+
+    public void setInitPosition(int initPosition) {
+        mInitPosition = initPosition;
+        mInitPositionSet = true;
+    }
+
+    /**
+     * 清除初始位置，下次 {@link #ensureInitPosition()} 时按默认规则重新选择
+     */
+    public void clearInitPosition() {
+        mInitPosition = 0;
+        mInitPositionSet = false;
+    }
+
+    public boolean hasInitPosition() {
+        return mInitPositionSet;
+    }
+
+    public int getInitPosition() {
+        return mInitPosition;
+    }
+
+    /**
+     * 未设置初始位置时，循环模式选中中间一项，否则选中第一项
+     */
+    public void ensureInitPosition() {
+        if (!mInitPositionSet) {
+            mInitPosition = mLoop ? (mItemCount + 1) / 2 : 0;
+            mInitPositionSet = true;
+        }
+        mPreCurrentIndex = mInitPosition;
+    }
+
+    /**
+     * 以 index 为初始位置，滚动距离归零；已知 item 数量时把越界的 index 映射或限制到有效范围
+     */
+    public void setCurrentItem(int index) {
+        if (mItemCount > 0) {
+            index = mLoop ? WheelMath.loopMappingIndex(index, mItemCount)
+                    : Math.max(0, Math.min(mItemCount - 1, index));
+        }
+        mInitPosition = index;
+        mInitPositionSet = true;
+        mPreCurrentIndex = index;
+        mTotalScrollY = 0;
+    }
+
+    /**
+     * 根据当前滚动位置计算中间的项，不依赖上一次 {@link #layout()} 的结果
+     *
+     * @return 没有数据时返回 -1
+     */
+    public int getCurrentItem() {
+        if (mItemCount <= 0) {
+            return -1;
+        }
+        long change = mItemHeight > 0 ? Math.round(mTotalScrollY / (double) mItemHeight) : 0;
+        long position = (long) mInitPosition + change;
+        if (mLoop) {
+            return WheelMath.loopMappingIndex(position, mItemCount);
+        }
+        return (int) Math.max(0, Math.min(mItemCount - 1, position));
+    }
+
+    /**
+     * 计算把 item 滚动到中间时的滚动位置，循环模式下走较近的方向
+     */
+    public long getScrollYForItem(int item) {
+        int current = getCurrentItem();
+        if (current < 0 || mItemHeight <= 0) {
+            return mTotalScrollY;
+        }
+        long delta = (long) item - current;
+        if (mLoop) {
+            delta = WheelMath.floorMod(delta, mItemCount);
+            if (delta > mItemCount / 2) {
+                delta -= mItemCount;
+            }
+        }
+        long rows = Math.round(mTotalScrollY / (double) mItemHeight) + delta;
+        return clampScrollPosition(Math.round(rows * (double) mItemHeight));
+    }
+
+    public void setTotalScrollY(long totalScrollY) {
+        mTotalScrollY = totalScrollY;
+    }
+
+    public long getTotalScrollY() {
+        return mTotalScrollY;
+    }
+
+    /**
+     * 手指按下时调用，丢弃上一次拖动剩下的不足一像素的位移
+     */
+    public void startDrag() {
+        mDragRemainder = 0f;
+    }
+
+    /**
+     * 手指拖动 dy，非循环模式下最多越过两端 {@link #DRAG_OVERSCROLL} 行
+     */
+    public void drag(float dy) {
+        long previous = mTotalScrollY;
+        float total = dy + mDragRemainder;
+        long step = Math.round(total);
+        mDragRemainder = total - step;
+        mTotalScrollY += step;
+        if (!mLoop) {
+            long top = getTopBound();
+            long bottom = getBottomBound();
+            if (mTotalScrollY - mItemHeight * DRAG_OVERSCROLL < top) {
+                top = previous;
+            } else if (mTotalScrollY + mItemHeight * DRAG_OVERSCROLL > bottom) {
+                bottom = previous;
+            }
+            if (mTotalScrollY < top) {
+                mTotalScrollY = top;
+                mDragRemainder = 0f;
+            } else if (mTotalScrollY > bottom) {
+                mTotalScrollY = bottom;
+                mDragRemainder = 0f;
+            }
+        }
+    }
+
+    /**
+     * 非循环模式下把滚动位置限制在第一项和最后一项之间
+     */
+    public long clampScrollPosition(long position) {
+        if (mLoop) {
+            return position;
+        }
+        return Math.max(getTopBound(), Math.min(getBottomBound(), position));
+    }
+
+    /**
+     * 把位置对齐到最近的 item 边界
+     */
+    public long snapScrollPosition(double position) {
+        if (mItemHeight <= 0) {
+            return Math.round(position);
+        }
+        return Math.round(Math.round(position / mItemHeight) * (double) mItemHeight);
+    }
+
+    /**
+     * @return 从当前位置回弹到最近一项需要滚动的距离
+     */
+    public int getSettleOffset() {
+        float offset = getItemScrollOffset();
+        if (offset > mItemHeight / 2.0f) {
+            return (int) (mItemHeight - offset);
+        }
+        return -(int) offset;
+    }
+
+    /**
+     * @param y 点击位置相对控件顶部的纵坐标
+     * @return 把点击的行滚动到中间需要滚动的距离
+     */
+    public int getClickOffset(float y) {
+        double l = Math.acos((mRadius - y) / mRadius) * mRadius;
+        int circlePosition = (int) ((l + mItemHeight / 2) / mItemHeight);
+        return (int) ((circlePosition - mItemsVisible / 2) * mItemHeight - getItemScrollOffset());
+    }
+
+    /**
+     * 把整行的滚动距离并入初始位置，之后初始位置就是中间的项，滚动距离只剩不足半行的偏移。
+     * 数据插入或删除前调用，循环模式下初始位置加滚动行数可能已经绕过一圈，直接平移初始位置会选错项
+     *
+     * @return 从滚动位置中扣除的距离
+     */
+    public long rebase() {
+        if (mItemCount <= 0 || mItemHeight <= 0) {
+            return 0;
+        }
+        long rows = Math.round(mTotalScrollY / (double) mItemHeight);
+        long position = (long) mInitPosition + rows;
+        mInitPosition = mLoop ? WheelMath.loopMappingIndex(position, mItemCount) : (int) position;
+        mInitPositionSet = true;
+        mPreCurrentIndex = mLoop ? mInitPosition : Math.max(0, Math.min(mItemCount - 1, mInitPosition));
+        long removed = Math.round(rows * (double) mItemHeight);
+        mTotalScrollY -= removed;
+        return removed;
+    }
+
+    /**
+     * 数据插入或删除后平移当前位置，保持选中项不变，调用前先 {@link #rebase()}
+     */
+    public void shiftPosition(int delta) {
+        mInitPosition += delta;
+        mPreCurrentIndex += delta;
+    }
+
+    /**
+     * 数据减少后把当前位置限制在有效范围内
+     *
+     * @return 平移的距离
+     */
+    public int clampPosition() {
+        if (mItemCount == 0) {
+            return 0;
+        }
+        int delta = 0;
+        if (mPreCurrentIndex > mItemCount - 1) {
+            delta = mItemCount - 1 - mPreCurrentIndex;
+        } else if (mPreCurrentIndex < 0) {
+            delta = -mPreCurrentIndex;
+        }
+        shiftPosition(delta);
+        return delta;
+    }
+
+    /**
+     * 按当前滚动位置计算中间的下标和每个可见行的下标、变换，结果通过 getRow* 读取
+     */
+    public void layout() {
+        int count = mItemCount;
+        long rows = 0;
+        mItemHeightOffset = 0f;
+        if (mItemHeight > 0) {
+            rows = (long) Math.floor(mTotalScrollY / (double) mItemHeight);
+            mItemHeightOffset = (float) (mTotalScrollY - rows * (double) mItemHeight);
+        }
+        long center = mInitPosition + rows;
+        if (mLoop) {
+            mPreCurrentIndex = WheelMath.loopMappingIndex(center, count);
+        } else {
+            mPreCurrentIndex = (int) Math.max(0, Math.min(count - 1, center));
+        }
+        for (int row = 0; row < mItemsVisible; row++) {
+            int index;
+            if (mLoop) {
+                index = WheelMath.loopMappingIndex((long) mPreCurrentIndex - (mItemsVisible / 2 - row), count);
+            } else {
+                // 非循环模式下中心已被限制在两端，超出部分按未限制的位置计算
+                long unclamped = center - (mItemsVisible / 2 - row);
+                index = unclamped < 0 || unclamped > count - 1 ? -1 : (int) unclamped;
+            }
+            mVisibleItems[row] = index;
+            float y = mItemHeight * row - mItemHeightOffset;
+            boolean visible = index >= 0 && mGeometry.isVisible(y);
+            mRowVisible[row] = visible;
+            if (visible) {
+                mRowTranslateY[row] = mGeometry.getTranslateY(y);
+                mRowScale[row] = mGeometry.getScale(y);
+            }
+        }
+    }
+
+    /**
+     * @return 最近一次 {@link #layout()} 时中间的下标
+     */
+    public int getPreCurrentIndex() {
+        return mPreCurrentIndex;
+    }
+
+    /**
+     * @return 第 row 个可见行的下标，超出两端时为 -1
+     */
+    public int getRowItem(int row) {
+        return mVisibleItems[row];
+    }
+
+    /**
+     * @return 第 row 行是否有内容且在圆柱正面
+     */
+    public boolean isRowVisible(int row) {
+        return mRowVisible[row];
+    }
+
+    public float getRowTranslateY(int row) {
+        return mRowTranslateY[row];
+    }
+
+    public float getRowScale(int row) {
+        return mRowScale[row];
+    }
+
+    /**
+     * @return 当前位置相对上一个 item 边界滚过的距离，[0, itemHeight)
+     */
+    private float getItemScrollOffset() {
+        if (mItemHeight <= 0) {
+            return 0f;
+        }
+        double rows = Math.floor(mTotalScrollY / (double) mItemHeight);
+        return (float) (mTotalScrollY - rows * mItemHeight);
+    }
+
+    private long getTopBound() {
+        return (long) (-(double) mInitPosition * mItemHeight);
+    }
+
+    private long getBottomBound() {
+        return (long) (((double) mItemCount - 1 - mInitPosition) * mItemHeight);
+    }
+}
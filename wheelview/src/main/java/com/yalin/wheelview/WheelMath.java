@@ -0,0 +1,46 @@
+package com.yalin.wheelview;
+
+/**
+ * WheelView 中与 Android 无关的下标计算，抽出来便于单元测试和 JVM 基准测试。
+ * 都是常数时间，不随偏移量或 item 数量增长。
+ */
+
+final class WheelMath {
+    private WheelMath() {
+    }
+
+    /**
+     * 循环模式下把越界的下标映射回 [0, count)
+     *
+     * @return count 不大于 0 时返回 -1
+     */
+    static int loopMappingIndex(long index, int count) {
+        if (count <= 0) {
+            return -1;
+        }
+        return (int) floorMod(index, count);
+    }
+
+    /**
+     * 结果与 y 同号的取模，API 24 以下没有 Math.floorMod
+     */
+    static long floorMod(long x, long y) {
+        long m = x % y;
+        if (m != 0 && ((m ^ y) < 0)) {
+            m += y;
+        }
+        return m;
+    }
+
+    /**
+     * 从 count 项中均匀抽取 sampleCount 项时第 sample 个样本的下标，首尾两项总会被抽中；
+     * count 不大于 sampleCount 时逐项返回
+     */
+    static int sampleIndex(int sample, int count, int sampleCount) {
+        if (count <= sampleCount) {
+            return sample;
+        }
+        float step = (count - 1) / (float) (sampleCount - 1);
+        return Math.round(sample * step);
+    }
+}
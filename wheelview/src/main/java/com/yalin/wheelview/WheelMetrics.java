@@ -0,0 +1,192 @@
+package com.yalin.wheelview;
+
+/**
+ * WheelView 性能数据的快照，由 {@link WheelView#getMetrics()} 或
+ * {@link WheelView.OnMetricsListener} 提供，创建后不再变化，可以交给其他线程上报。
+ * 时间单位都是纳秒。
+ */
+
+public final class WheelMetrics {
+    /**
+     * onDraw 耗时直方图各桶的上界（纳秒），最后一桶没有上界
+     */
+    private static final long[] DRAW_BUCKET_BOUNDS = {
+            500000L, 1000000L, 2000000L, 4000000L, 8000000L, 16000000L
+    };
+
+    final int[] drawHistogram = new int[DRAW_BUCKET_BOUNDS.length + 1];
+    long drawCount;
+    long drawTotalNanos;
+    long drawMaxNanos;
+
+    long frameIntervalNanos;
+    long animationFrameCount;
+    long lateFrameCount;
+    long droppedFrameCount;
+    long jitterTotalNanos;
+    long jitterMaxNanos;
+
+    long labelCacheHitCount;
+    long labelCacheMissCount;
+
+    long remeasureCount;
+    long remeasureTotalNanos;
+    long remeasureMaxNanos;
+
+    long touchLatencyCount;
+    long touchLatencyTotalNanos;
+    long touchLatencyMaxNanos;
+
+    WheelMetrics() {
+    }
+
+    /**
+     * @return 第 bucket 个直方图桶的上界（纳秒），最后一桶返回 Long.MAX_VALUE
+     */
+    public static long getDrawBucketBound(int bucket) {
+        return bucket < DRAW_BUCKET_BOUNDS.length ? DRAW_BUCKET_BOUNDS[bucket] : Long.MAX_VALUE;
+    }
+
+    public static int getDrawBucketCount() {
+        return DRAW_BUCKET_BOUNDS.length + 1;
+    }
+
+    static int drawBucketOf(long nanos) {
+        for (int i = 0; i < DRAW_BUCKET_BOUNDS.length; i++) {
+            if (nanos < DRAW_BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return DRAW_BUCKET_BOUNDS.length;
+    }
+
+    /**
+     * @return 耗时落在第 bucket 个桶中的 onDraw 次数
+     */
+    public int getDrawCount(int bucket) {
+        return drawHistogram[bucket];
+    }
+
+    public long getDrawCount() {
+        return drawCount;
+    }
+
+    public long getDrawTotalNanos() {
+        return drawTotalNanos;
+    }
+
+    public long getDrawMaxNanos() {
+        return drawMaxNanos;
+    }
+
+    public long getDrawAverageNanos() {
+        return drawCount == 0 ? 0 : drawTotalNanos / drawCount;
+    }
+
+    /**
+     * @return 判断迟到和丢帧时使用的屏幕刷新间隔
+     */
+    public long getFrameIntervalNanos() {
+        return frameIntervalNanos;
+    }
+
+    /**
+     * @return 惯性滚动和回弹期间推进动画的帧数
+     */
+    public long getAnimationFrameCount() {
+        return animationFrameCount;
+    }
+
+    /**
+     * @return 与上一帧间隔超过 1.5 个刷新间隔的动画帧数
+     */
+    public long getLateFrameCount() {
+        return lateFrameCount;
+    }
+
+    /**
+     * @return 按间隔估算的动画期间跳过的帧数
+     */
+    public long getDroppedFrameCount() {
+        return droppedFrameCount;
+    }
+
+    /**
+     * @return 动画帧间隔与刷新间隔之差的平均绝对值
+     */
+    public long getAverageJitterNanos() {
+        return animationFrameCount == 0 ? 0 : jitterTotalNanos / animationFrameCount;
+    }
+
+    public long getMaxJitterNanos() {
+        return jitterMaxNanos;
+    }
+
+    public long getLabelCacheHitCount() {
+        return labelCacheHitCount;
+    }
+
+    public long getLabelCacheMissCount() {
+        return labelCacheMissCount;
+    }
+
+    /**
+     * @return 文字测量缓存命中率，没有访问时返回 0
+     */
+    public float getLabelCacheHitRate() {
+        long total = labelCacheHitCount + labelCacheMissCount;
+        return total == 0 ? 0f : (float) labelCacheHitCount / total;
+    }
+
+    public long getRemeasureCount() {
+        return remeasureCount;
+    }
+
+    public long getRemeasureTotalNanos() {
+        return remeasureTotalNanos;
+    }
+
+    public long getRemeasureMaxNanos() {
+        return remeasureMaxNanos;
+    }
+
+    /**
+     * @return 拖动时从最新触摸样本到绘制出该位置的次数
+     */
+    public long getTouchLatencyCount() {
+        return touchLatencyCount;
+    }
+
+    public long getTouchLatencyAverageNanos() {
+        return touchLatencyCount == 0 ? 0 : touchLatencyTotalNanos / touchLatencyCount;
+    }
+
+    public long getTouchLatencyMaxNanos() {
+        return touchLatencyMaxNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("WheelMetrics{draws=").append(drawCount)
+                .append(", drawAvgNs=").append(getDrawAverageNanos())
+                .append(", drawMaxNs=").append(drawMaxNanos)
+                .append(", drawHistogram=[");
+        for (int i = 0; i < drawHistogram.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(drawHistogram[i]);
+        }
+        return builder.append("], animationFrames=").append(animationFrameCount)
+                .append(", lateFrames=").append(lateFrameCount)
+                .append(", droppedFrames=").append(droppedFrameCount)
+                .append(", avgJitterNs=").append(getAverageJitterNanos())
+                .append(", maxJitterNs=").append(jitterMaxNanos)
+                .append(", labelCacheHitRate=").append(getLabelCacheHitRate())
+                .append(", remeasures=").append(remeasureCount)
+                .append(", remeasureTotalNs=").append(remeasureTotalNanos)
+                .append(", touchLatencyAvgNs=").append(getTouchLatencyAverageNanos())
+                .append(", touchLatencyMaxNs=").append(touchLatencyMaxNanos)
+                .append('}').toString();
+    }
+}
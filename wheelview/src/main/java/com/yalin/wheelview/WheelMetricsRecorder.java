@@ -0,0 +1,149 @@
+package com.yalin.wheelview;
+
+/**
+ * 在主线程累计 WheelView 的性能数据，只写基本类型字段，记录时不分配内存。
+ * 未开启统计时 WheelView 不持有它，热路径上只多一次判空。
+ */
+
+final class WheelMetricsRecorder {
+    /**
+     * 帧间隔超过刷新间隔的这个倍数算作迟到
+     */
+    private static final float LATE_FRAME_FACTOR = 1.5f;
+
+    private final WheelMetrics mMetrics = new WheelMetrics();
+    private long mLastFrameTimeNanos;
+
+    private long mLabelCacheHitBase;
+    private long mLabelCacheMissBase;
+
+    WheelMetricsRecorder(long frameIntervalNanos) {
+        mMetrics.frameIntervalNanos = frameIntervalNanos;
+    }
+
+    void setFrameIntervalNanos(long frameIntervalNanos) {
+        mMetrics.frameIntervalNanos = frameIntervalNanos;
+    }
+
+    void recordDraw(long nanos) {
+        WheelMetrics metrics = mMetrics;
+        metrics.drawHistogram[WheelMetrics.drawBucketOf(nanos)]++;
+        metrics.drawCount++;
+        metrics.drawTotalNanos += nanos;
+        if (nanos > metrics.drawMaxNanos) {
+            metrics.drawMaxNanos = nanos;
+        }
+    }
+
+    void recordRemeasure(long nanos) {
+        WheelMetrics metrics = mMetrics;
+        metrics.remeasureCount++;
+        metrics.remeasureTotalNanos += nanos;
+        if (nanos > metrics.remeasureMaxNanos) {
+            metrics.remeasureMaxNanos = nanos;
+        }
+    }
+
+    /**
+     * @param nanos 从触摸样本时间到开始绘制的时间
+     */
+    void recordTouchLatency(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        WheelMetrics metrics = mMetrics;
+        metrics.touchLatencyCount++;
+        metrics.touchLatencyTotalNanos += nanos;
+        if (nanos > metrics.touchLatencyMaxNanos) {
+            metrics.touchLatencyMaxNanos = nanos;
+        }
+    }
+
+    /**
+     * 动画开始时调用，第一帧没有上一帧可比较
+     */
+    void onAnimationStart() {
+        mLastFrameTimeNanos = 0;
+    }
+
+    void recordAnimationFrame(long frameTimeNanos) {
+        long last = mLastFrameTimeNanos;
+        mLastFrameTimeNanos = frameTimeNanos;
+        if (last == 0 || frameTimeNanos <= last) {
+            return;
+        }
+        WheelMetrics metrics = mMetrics;
+        long expected = metrics.frameIntervalNanos;
+        long interval = frameTimeNanos - last;
+        metrics.animationFrameCount++;
+        long jitter = Math.abs(interval - expected);
+        metrics.jitterTotalNanos += jitter;
+        if (jitter > metrics.jitterMaxNanos) {
+            metrics.jitterMaxNanos = jitter;
+        }
+        if (interval > expected * LATE_FRAME_FACTOR) {
+            metrics.lateFrameCount++;
+            metrics.droppedFrameCount += Math.round((double) interval / expected) - 1;
+        }
+    }
+
+    /**
+     * @param labelCacheHits   文字测量缓存当前的命中计数
+     * @param labelCacheMisses 文字测量缓存当前的未命中计数
+     */
+    WheelMetrics snapshot(long labelCacheHits, long labelCacheMisses) {
+        WheelMetrics source = mMetrics;
+        WheelMetrics copy = new WheelMetrics();
+        System.arraycopy(source.drawHistogram, 0, copy.drawHistogram, 0, copy.drawHistogram.length);
+        copy.drawCount = source.drawCount;
+        copy.drawTotalNanos = source.drawTotalNanos;
+        copy.drawMaxNanos = source.drawMaxNanos;
+        copy.frameIntervalNanos = source.frameIntervalNanos;
+        copy.animationFrameCount = source.animationFrameCount;
+        copy.lateFrameCount = source.lateFrameCount;
+        copy.droppedFrameCount = source.droppedFrameCount;
+        copy.jitterTotalNanos = source.jitterTotalNanos;
+        copy.jitterMaxNanos = source.jitterMaxNanos;
+        copy.labelCacheHitCount = labelCacheHits - mLabelCacheHitBase;
+        copy.labelCacheMissCount = labelCacheMisses - mLabelCacheMissBase;
+        copy.remeasureCount = source.remeasureCount;
+        copy.remeasureTotalNanos = source.remeasureTotalNanos;
+        copy.remeasureMaxNanos = source.remeasureMaxNanos;
+        copy.touchLatencyCount = source.touchLatencyCount;
+        copy.touchLatencyTotalNanos = source.touchLatencyTotalNanos;
+        copy.touchLatencyMaxNanos = source.touchLatencyMaxNanos;
+        return copy;
+    }
+
+    /**
+     * 文字测量缓存的计数被单独清零时调用
+     */
+    void onLabelCacheStatsReset() {
+        mLabelCacheHitBase = 0;
+        mLabelCacheMissBase = 0;
+    }
+
+    void reset(long labelCacheHits, long labelCacheMisses) {
+        WheelMetrics metrics = mMetrics;
+        for (int i = 0; i < metrics.drawHistogram.length; i++) {
+            metrics.drawHistogram[i] = 0;
+        }
+        metrics.drawCount = 0;
+        metrics.drawTotalNanos = 0;
+        metrics.drawMaxNanos = 0;
+        metrics.animationFrameCount = 0;
+        metrics.lateFrameCount = 0;
+        metrics.droppedFrameCount = 0;
+        metrics.jitterTotalNanos = 0;
+        metrics.jitterMaxNanos = 0;
+        metrics.remeasureCount = 0;
+        metrics.remeasureTotalNanos = 0;
+        metrics.remeasureMaxNanos = 0;
+        metrics.touchLatencyCount = 0;
+        metrics.touchLatencyTotalNanos = 0;
+        metrics.touchLatencyMaxNanos = 0;
+        mLastFrameTimeNanos = 0;
+        mLabelCacheHitBase = labelCacheHits;
+        mLabelCacheMissBase = labelCacheMisses;
+    }
+}
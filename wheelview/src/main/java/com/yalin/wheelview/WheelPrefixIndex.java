@@ -0,0 +1,75 @@
+package com.yalin.wheelview;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * 按键排序的前缀索引，二分查找，O(log n) 找到第一个以指定前缀开头的 item。
+ * 键不区分大小写；多个 item 的键相同时返回下标最小的一个。建立后不可修改，可以跨线程传递。
+ */
+
+final class WheelPrefixIndex {
+    private final String[] mKeys;
+    private final int[] mPositions;
+
+    private WheelPrefixIndex(String[] keys, int[] positions) {
+        mKeys = keys;
+        mPositions = positions;
+    }
+
+    /**
+     * @param keys 按 item 下标排列的键，建立过程中会被修改
+     */
+    static WheelPrefixIndex build(final String[] keys) {
+        int count = keys.length;
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = normalize(keys[i]);
+            order[i] = i;
+        }
+        // 排序稳定，相同的键保持下标从小到大
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                return keys[lhs].compareTo(keys[rhs]);
+            }
+        });
+        String[] sortedKeys = new String[count];
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = order[i];
+            sortedKeys[i] = keys[positions[i]];
+        }
+        return new WheelPrefixIndex(sortedKeys, positions);
+    }
+
+    static String normalize(String key) {
+        return key == null ? "" : key.toLowerCase(Locale.ROOT);
+    }
+
+    int size() {
+        return mKeys.length;
+    }
+
+    /**
+     * @return 键以 prefix 开头的 item 下标，没有时返回 -1
+     */
+    int find(String prefix) {
+        String key = normalize(prefix);
+        int low = 0;
+        int high = mKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mKeys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low < mKeys.length && mKeys[low].startsWith(key)) {
+            return mPositions[low];
+        }
+        return -1;
+    }
+}
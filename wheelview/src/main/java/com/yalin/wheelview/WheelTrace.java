@@ -0,0 +1,33 @@
+package com.yalin.wheelview;
+
+import android.support.v4.os.TraceCompat;
+
+/**
+ * WheelView 各阶段的 systrace / Perfetto 区段。
+ * 开关是编译期常量 BuildConfig.WHEEL_TRACE，调用处用 {@code if (WheelTrace.ENABLED)} 包住，
+ * 关闭时整段代码被编译器删除；用 {@code ./gradlew -PwheelTrace ...} 构建时开启。
+ */
+
+final class WheelTrace {
+    static final boolean ENABLED = BuildConfig.WHEEL_TRACE;
+
+    static final String MEASURE = "WheelView#measure";
+    static final String DRAW = "WheelView#draw";
+    static final String TOUCH = "WheelView#touch";
+    static final String ANIMATION_TICK = "WheelView#animationTick";
+
+    private WheelTrace() {
+    }
+
+    static void beginSection(String sectionName) {
+        if (ENABLED) {
+            TraceCompat.beginSection(sectionName);
+        }
+    }
+
+    static void endSection() {
+        if (ENABLED) {
+            TraceCompat.endSection();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.yalin.wheelview;
+
+/**
+ * 纵向速度估计，不依赖 Android，可以在 JVM 上测试。
+ * 样本存在定长环形数组里，添加样本和计算速度都不分配内存。
+ * 速度取最近 {@link #HORIZON_NANOS} 内样本的最小二乘直线斜率，
+ * 高采样率的触摸屏一次事件带来多个历史样本时，比只看首尾两点稳定。
+ */
+
+final class WheelVelocityTracker {
+    private static final int CAPACITY = 32;
+    /**
+     * 只使用这段时间内的样本
+     */
+    private static final long HORIZON_NANOS = 100000000L;
+    /**
+     * 相邻样本间隔超过这个值认为手指曾经停住，更早的样本不再参与计算
+     */
+    private static final long ASSUME_STOPPED_NANOS = 40000000L;
+
+    private final long[] mTimes = new long[CAPACITY];
+    private final float[] mPositions = new float[CAPACITY];
+    private int mNewest = -1;
+    private int mSize;
+
+    void clear() {
+        mNewest = -1;
+        mSize = 0;
+    }
+
+    /**
+     * @param timeNanos 样本时间，必须不早于上一个样本
+     */
+    void addMovement(long timeNanos, float y) {
+        if (mSize > 0 && timeNanos < mTimes[mNewest]) {
+            return;
+        }
+        mNewest = (mNewest + 1) % CAPACITY;
+        mTimes[mNewest] = timeNanos;
+        mPositions[mNewest] = y;
+        if (mSize < CAPACITY) {
+            mSize++;
+        }
+    }
+
+    int getSampleCount() {
+        return mSize;
+    }
+
+    /**
+     * @return 最新样本的时间，没有样本时返回 0
+     */
+    long getLatestTime() {
+        return mSize > 0 ? mTimes[mNewest] : 0L;
+    }
+
+    /**
+     * @return 像素每秒，样本不足两个时返回 0
+     */
+    float computeVelocity() {
+        if (mSize < 2) {
+            return 0f;
+        }
+        long newestTime = mTimes[mNewest];
+        // 以最新样本为原点，时间换算成秒，避免大时间戳上的精度损失
+        double sumT = 0;
+        double sumY = 0;
+        double sumTT = 0;
+        double sumTY = 0;
+        int count = 0;
+        long previousTime = newestTime;
+        for (int i = 0; i < mSize; i++) {
+            int index = (mNewest - i + CAPACITY) % CAPACITY;
+            long time = mTimes[index];
+            if (newestTime - time > HORIZON_NANOS || previousTime - time > ASSUME_STOPPED_NANOS) {
+                break;
+            }
+            previousTime = time;
+            double t = (time - newestTime) / 1e9;
+            double y = mPositions[index];
+            sumT += t;
+            sumY += y;
+            sumTT += t * t;
+            sumTY += t * y;
+            count++;
+        }
+        if (count < 2) {
+            return 0f;
+        }
+        double denominator = count * sumTT - sumT * sumT;
+        if (denominator <= 0) {
+            return 0f;
+        }
+        return (float) ((count * sumTY - sumT * sumY) / denominator);
+    }
+}
@@ -2,32 +2,24 @@ package com.yalin.wheelview;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.Typeface;
-import android.os.Handler;
-import android.os.Message;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.support.annotation.NonNull;
 import android.support.v4.content.ContextCompat;
 import android.support.v4.os.ParcelableCompat;
 import android.support.v4.os.ParcelableCompatCreatorCallbacks;
 import android.text.TextUtils;
 import android.util.AttributeSet;
-import android.util.Log;
-import android.view.GestureDetector;
 import android.view.HapticFeedbackConstants;
 import android.view.MotionEvent;
 import android.view.View;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.TimerTask;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import android.view.ViewConfiguration;
+import android.view.WindowManager;
 
 import static android.view.MotionEvent.ACTION_DOWN;
 import static android.view.MotionEvent.ACTION_MOVE;
@@ -41,33 +33,90 @@ import static android.view.MotionEvent.ACTION_UP;
  */
 
 public class WheelView extends View {
-    private static final String TAG = "WheelView";
-
     public interface OnItemSelectedListener {
         void onItemSelected(WheelAdapter adapter, int position);
     }
 
+    /**
+     * 每次惯性滚动或回弹结束时收到累计的性能数据，需要先 {@link #setMetricsEnabled(boolean)}
+     */
+    public interface OnMetricsListener {
+        void onAnimationMetrics(WheelView view, WheelMetrics metrics);
+    }
+
     public enum ACTION {
         CLICK, FLING, DRAGGLE
     }
 
+    /**
+     * 计算最大文字宽度的方式
+     */
+    public enum MeasureStrategy {
+        /**
+         * 测量所有 item
+         */
+        FULL,
+        /**
+         * 只均匀抽样测量固定数量的 item，宽度为估计值
+         */
+        SAMPLED,
+        /**
+         * 只测量 adapter 通过 {@link WidestLabelHint} 给出的最宽文字，未实现时退化为 {@link #SAMPLED}
+         */
+        HINT,
+        /**
+         * 先按 {@link #SAMPLED} 估计，再在后台线程完整扫描，发现更宽的文字时重新布局
+         */
+        BACKGROUND
+    }
+
     private static final float LINE_SPACING_MULTIPLIER = 1.4f;
 
     private static final float SCALE_CONTENT = 0.8f;
 
     private static final float CENTER_CONTENT_OFFSET = 6;
 
-    private static final int VELOCITY_FLING = 5;
+    private static final int MEASURE_SAMPLE_COUNT = 64;
+
+    /**
+     * 建立前缀索引时每条消息在主线程读取的 item 文字数
+     */
+    private static final int PREFIX_READ_CHUNK = 1024;
 
-    private static final int GRAVITY_CENTER = 0;
-    private static final int GRAVITY_LEFT = -1;
-    private static final int GRAVITY_RIGHT = 1;
+    private static final int ITEMS_VISIBLE = 11;
 
-    private GestureDetector mGestureDetector;
+    private static final float DEFAULT_REFRESH_RATE = 60f;
 
-    private ScheduledExecutorService mExecutor = Executors.newSingleThreadScheduledExecutor();
+    private static final int DEFAULT_SCROLL_TO_DURATION_MS = 300;
 
-    private ScheduledFuture<?> mFuture;
+    private static final int SCROLL_STATE_IDLE = 0;
+    private static final int SCROLL_STATE_FLING = 1;
+    private static final int SCROLL_STATE_SETTLE = 2;
+
+    /**
+     * 手势速度上限和换算成滚动速度的倍数，与旧版手感一致
+     */
+    private static final float FLING_MAX_VELOCITY = 3000f;
+    private static final float FLING_DISTANCE_SCALE = 2f;
+
+    /**
+     * 回弹每 10ms 走完剩余距离的 10%，即衰减系数 -ln(0.9) * 100
+     */
+    private static final float SETTLE_FRICTION = 10.536f;
+    private static final float SETTLE_STOP_VELOCITY = 10f;
+
+    public static final int GRAVITY_CENTER = 0;
+    public static final int GRAVITY_LEFT = -1;
+    public static final int GRAVITY_RIGHT = 1;
+
+    /**
+     * 整个控件在 CPU 上光栅化，兼容性最好
+     */
+    public static final int RENDER_MODE_SOFTWARE = 0;
+    /**
+     * 交给 GPU 绘制，每帧只重新录制少量平移、缩放、裁剪和文字指令，需要窗口开启硬件加速
+     */
+    public static final int RENDER_MODE_HARDWARE = 1;
 
     private Paint mPaintOuterText;
     private Paint mPaintCenterText;
@@ -84,15 +133,12 @@ public class WheelView extends View {
 
     private int mGravity = GRAVITY_CENTER;
 
-    private InternalHandler mHandler;
+    private int mRenderMode = RENDER_MODE_SOFTWARE;
 
-    private boolean mIsLoop = true;
-    private int mTotalScrollY;
-    private int mInitPosition;
-
-    private int mItemsVisible = 11;
-    private float mItemHeight;
-    private int mPreCurrentIndex;
+    /**
+     * 滚动位置、可见行下标和圆柱投影都由它计算
+     */
+    private final WheelLayoutEngine mLayout = new WheelLayoutEngine(ITEMS_VISIBLE);
 
     private float mFirstLineY;
     private float mSecondLineY;
@@ -103,13 +149,79 @@ public class WheelView extends View {
     private int mMaxTextWidth;
     private int mMaxTextHeight;
 
-    private int mHalfCircumference;
-    private int mRadius;
+    private MeasureStrategy mMeasureStrategy = MeasureStrategy.FULL;
+    private boolean mTextMeasureDirty = true;
+    /**
+     * 最大宽高已经覆盖全部 item，后台扫描未完成或分页估计时为 false
+     */
+    private boolean mTextMeasureComplete;
+    /**
+     * 从 SavedState 恢复的测量结果，下一次测量时 adapter 指纹一致则直接使用
+     */
+    private boolean mHasRestoredMeasure;
+    private long mRestoredFingerprint;
+    private int mRestoredMaxTextWidth;
+    private int mRestoredMaxTextHeight;
+    /**
+     * 每次重新测量加一，后台扫描据此判断结果是否已经过期
+     */
+    private volatile int mMeasureGeneration;
+
+    private boolean mSharedMeasureEnabled;
+    /**
+     * 最近一次测量使用的共享缓存 key，数据变化时据此移除过期的结果
+     */
+    private SharedMeasureCache.Key mSharedMeasureKey;
 
     private int mDrawOutContentStart = 0;
     private int mDrawCenterContentStart = 0;
 
-    private List<Integer> mVisibleItems;
+    private final Rect mTextBounds = new Rect();
+    /**
+     * 当前绘制或测量的 item 文字，String adapter 的文字也复制到这里，统一走 char[] 路径
+     */
+    private char[] mLabelChars = new char[16];
+    private CharArrayWheelAdapter mCharAdapter;
+    private PagedWheelAdapter mPagedAdapter;
+    private BaseWheelAdapter mObservableAdapter;
+    private WheelDataObserver mDataObserver;
+    private float[] mTextWidths = new float[8];
+    private int mLabelWidth = -1;
+
+    /**
+     * 分隔线和单位文字不随滚动变化，预先画到这张位图上，每帧只需一次 drawBitmap
+     */
+    private Bitmap mStaticLayer;
+    private int mStaticLayerTop;
+    private boolean mStaticLayerDirty = true;
+    private final Canvas mStaticLayerCanvas = new Canvas();
+    private final Paint.FontMetricsInt mFontMetrics = new Paint.FontMetricsInt();
+
+    /**
+     * 前缀查找索引，数据变化后置为 null，下次查找时重新建立
+     */
+    private WheelPrefixIndex mPrefixIndex;
+    /**
+     * 每次索引失效加一，后台建立的结果据此判断是否过期
+     */
+    private volatile int mPrefixIndexGeneration;
+    private boolean mPrefixIndexBuilding;
+    /**
+     * 索引建立完成后要跳转的前缀
+     */
+    private String mPendingPrefix;
+
+    /**
+     * 上一次 onDraw 时的滚动位置，位置没有变化的触摸事件和动画帧不再重绘
+     */
+    private long mDrawnScrollY = Long.MIN_VALUE;
+
+    /**
+     * 为 null 表示未开启文字条缓存
+     */
+    private LabelBitmapCache mLabelBitmapCache;
+
+    private final LabelMeasureCache mLabelCache = new LabelMeasureCache(LabelMeasureCache.DEFAULT_MAX_SIZE);
 
     private int mSelectedItem;
 
@@ -118,112 +230,62 @@ public class WheelView extends View {
     private int mMeasuredHeight;
 
     private int mOffset = 0;
-    private float mVelocityY = 0;
     private float mPreviousY = 0;
+    private float mDownY;
+    /**
+     * 手指移动超过 touch slop 后为 true，之后抬起才可能触发惯性滚动
+     */
+    private boolean mDragging;
 
     private long mStartTime = 0;
 
-    private OnItemSelectedListener mOnItemSelectedListener;
-
-    private GestureDetector.SimpleOnGestureListener mInternalGestureListener
-            = new GestureDetector.SimpleOnGestureListener() {
-        @Override
-        public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            scrollBy(velocityY);
-            return true;
-        }
-    };
-
-    private int mRealTotalOffset = Integer.MAX_VALUE;
-    private int mRealOffset = 0;
-    private TimerTask mSmoothScrollTimerTask = new TimerTask() {
-        @Override
-        public void run() {
-            Log.d(TAG, "mSmoothScrollTimerTask run: ");
-            if (mRealTotalOffset == Integer.MAX_VALUE) {
-                mRealTotalOffset = mOffset;
-            }
-            mRealOffset = (int) (mRealTotalOffset * 0.1f);
-            if (mRealOffset == 0) {
-                if (mRealTotalOffset < 0) {
-                    mRealOffset = -1;
-                } else {
-                    mRealOffset = 1;
-                }
-            }
-
-            if (Math.abs(mRealTotalOffset) <= 1) {
-                cancelFuture();
-                mHandler.obtainMessage(InternalHandler.WHAT_ITEM_SELECTED, WheelView.this).sendToTarget();
-            } else {
-                mTotalScrollY += mRealOffset;
-
-                if (!mIsLoop) {
-                    float itemHeight = mItemHeight;
-                    float top = -mInitPosition * itemHeight;
-                    float bottom = (mAdapter.getItemsCount() - 1 - mInitPosition) * itemHeight;
-                    if (mTotalScrollY <= top || mTotalScrollY >= bottom) {
-                        mTotalScrollY -= mRealOffset;
-                        cancelFuture();
-                        mHandler.obtainMessage(InternalHandler.WHAT_ITEM_SELECTED, WheelView.this).sendToTarget();
-                        return;
-                    }
-                }
-                mHandler.obtainMessage(InternalHandler.WHAT_INVALIDATE_LOOP_VIEW, WheelView.this).sendToTarget();
-                mRealTotalOffset -= mRealOffset;
-            }
-        }
-    };
+    private final WheelVelocityTracker mVelocityTracker = new WheelVelocityTracker();
+    private int mTouchSlop;
+    private int mMinFlingVelocity;
+
+    private boolean mTouchPredictionEnabled;
+    /**
+     * 当前滚动位置中预测出来的部分，下一个触摸事件到来时先撤销
+     */
+    private long mPredictedScrollY;
+    private long mFrameIntervalNanos = (long) (1e9 / DEFAULT_REFRESH_RATE);
+    /**
+     * 尚未绘制的最新触摸样本时间，开启统计时用于计算触摸到绘制的延迟，0 表示没有
+     */
+    private long mPendingTouchNanos;
 
-    private float mRealVelocityY = Integer.MAX_VALUE;
-    private TimerTask mInertiaTimerTask = new TimerTask() {
-        private static final float MAX_VELOCITY_THRESHOLD = 3000f;
+    private OnItemSelectedListener mOnItemSelectedListener;
 
+    /**
+     * 未开启统计时为 null
+     */
+    private WheelMetricsRecorder mMetricsRecorder;
+    private OnMetricsListener mOnMetricsListener;
+
+    private int mScrollState = SCROLL_STATE_IDLE;
+    private FlingModel mFlingModel = new DecayFlingModel();
+    private final FlingModel mSettleModel = new DecayFlingModel(SETTLE_FRICTION, SETTLE_STOP_VELOCITY);
+    private FlingModel mActiveModel;
+    private long mAnimStartNanos;
+    /**
+     * 动画开始时的滚动位置，模型只计算相对距离，避免 float 在很大的滚动位置上丢失精度
+     */
+    private long mAnimStartScrollY;
+    private long mAnimTargetScrollY;
+
+    private final TimedScrollModel mScrollToModel = new TimedScrollModel(0);
+    /**
+     * 分离时记录时间，重新挂载后把动画起点后移，分离期间不计入动画
+     */
+    private long mDetachedNanos;
+
+    private FrameClock.FrameListener mFrameListener;
+    private boolean mAttachedToWindow;
+
+    private final Runnable mItemSelectedRunnable = new Runnable() {
         @Override
         public void run() {
-            Log.d(TAG, "mInertiaTimerTask run: ");
-            if (mRealVelocityY == Integer.MAX_VALUE) {
-                if (Math.abs(mVelocityY) > MAX_VELOCITY_THRESHOLD) {
-                    if (mVelocityY > 0.0f) {
-                        mRealVelocityY = MAX_VELOCITY_THRESHOLD;
-                    } else {
-                        mRealVelocityY = -MAX_VELOCITY_THRESHOLD;
-                    }
-                } else {
-                    mRealVelocityY = mVelocityY;
-                }
-            }
-            if (Math.abs(mRealVelocityY) >= 0f && Math.abs(mRealVelocityY) <= 20f) {
-                cancelFuture();
-                mHandler.obtainMessage(InternalHandler.WHAT_SMOOTH_SCROLL, WheelView.this).sendToTarget();
-                return;
-            }
-            int i = (int) ((mRealVelocityY * 10f) / 1000);
-            mTotalScrollY -= i;
-            if (!mIsLoop) {
-                float itemHeight = mItemHeight;
-                float top = -mInitPosition * itemHeight;
-                float bottom = (mAdapter.getItemsCount() - 1 - mInitPosition) * itemHeight;
-                if (mTotalScrollY - itemHeight * 0.3 < top) {
-                    top = mTotalScrollY + i;
-                } else if (mTotalScrollY + itemHeight * 0.3 > bottom) {
-                    bottom = mTotalScrollY + i;
-                }
-
-                if (mTotalScrollY <= top) {
-                    mRealVelocityY = 40f;
-                    mTotalScrollY = (int) top;
-                } else if (mTotalScrollY >= bottom) {
-                    mRealVelocityY = -40f;
-                    mTotalScrollY = (int) bottom;
-                }
-            }
-            if (mRealVelocityY < 0f) {
-                mRealVelocityY += 20f;
-            } else {
-                mRealVelocityY -= 20f;
-            }
-            mHandler.obtainMessage(InternalHandler.WHAT_INVALIDATE_LOOP_VIEW, WheelView.this).sendToTarget();
+            onItemSelected();
         }
     };
 
@@ -250,23 +312,30 @@ public class WheelView extends View {
                 mTextColorCenter = array.getColor(R.styleable.WheelView_textColorCenter, mTextColorCenter);
                 mDividerColor = array.getColor(R.styleable.WheelView_dividerColor, mDividerColor);
                 mTextSize = array.getDimensionPixelOffset(R.styleable.WheelView_textSize, mTextSize);
+                mMeasureStrategy = MeasureStrategy.values()[array.getInt(
+                        R.styleable.WheelView_measureStrategy, mMeasureStrategy.ordinal())];
+                mRenderMode = array.getInt(R.styleable.WheelView_renderMode, mRenderMode);
+                mSharedMeasureEnabled = array.getBoolean(R.styleable.WheelView_sharedMeasure, false);
+                int labelBitmapCacheSize = array.getInt(R.styleable.WheelView_labelBitmapCacheSize, 0);
+                if (labelBitmapCacheSize > 0) {
+                    mLabelBitmapCache = new LabelBitmapCache(labelBitmapCacheSize);
+                }
             } finally {
                 array.recycle();
             }
         }
         initLoopView(context);
         initPaints();
-        mVisibleItems = new ArrayList<>(mItemsVisible);
     }
 
     private void initLoopView(Context context) {
-        mHandler = new InternalHandler();
-        mGestureDetector = new GestureDetector(context, mInternalGestureListener);
-        mGestureDetector.setIsLongpressEnabled(false);
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinFlingVelocity = configuration.getScaledMinimumFlingVelocity();
 
-        mIsLoop = true;
-        mTotalScrollY = 0;
-        mInitPosition = -1;
+        mLayout.setLoop(true);
+        mLayout.setTotalScrollY(0);
+        mLayout.clearInitPosition();
     }
 
     private void initPaints() {
@@ -275,6 +344,7 @@ public class WheelView extends View {
         mPaintOuterText.setAntiAlias(true);
         mPaintOuterText.setTypeface(Typeface.MONOSPACE);
         mPaintOuterText.setTextSize(mTextSize);
+        mPaintOuterText.setFilterBitmap(true);
 
         mPaintCenterText = new Paint();
         mPaintCenterText.setColor(mTextColorCenter);
@@ -282,20 +352,47 @@ public class WheelView extends View {
         mPaintCenterText.setTextScaleX(1.1f);
         mPaintCenterText.setTypeface(Typeface.MONOSPACE);
         mPaintCenterText.setTextSize(mTextSize);
+        mPaintCenterText.setFilterBitmap(true);
 
         mPaintIndicator = new Paint();
         mPaintIndicator.setColor(mDividerColor);
         mPaintIndicator.setAntiAlias(true);
 
-        setLayerType(LAYER_TYPE_SOFTWARE, null);
+        applyRenderMode();
+    }
+
+    /**
+     * @param renderMode {@link #RENDER_MODE_SOFTWARE} 或 {@link #RENDER_MODE_HARDWARE}
+     */
+    public void setRenderMode(int renderMode) {
+        if (mRenderMode != renderMode) {
+            mRenderMode = renderMode;
+            applyRenderMode();
+        }
+    }
+
+    public int getRenderMode() {
+        return mRenderMode;
+    }
+
+    private void applyRenderMode() {
+        if (mRenderMode == RENDER_MODE_HARDWARE) {
+            // 圆柱效果只用到轴对齐的平移、缩放和矩形裁剪，GPU 都能直接处理
+            setLayerType(LAYER_TYPE_NONE, null);
+        } else {
+            setLayerType(LAYER_TYPE_SOFTWARE, null);
+        }
     }
 
     public void setLoopable(boolean loopable) {
-        mIsLoop = loopable;
+        mLayout.setLoop(loopable);
     }
 
     public void setLabel(String label) {
         mLabel = label;
+        invalidateStaticLayer();
+        requestLayout();
+        invalidate();
     }
 
     public void setTextSize(float size) {
@@ -303,21 +400,327 @@ public class WheelView extends View {
             mTextSize = (int) (getResources().getDisplayMetrics().density * size);
             mPaintOuterText.setTextSize(mTextSize);
             mPaintCenterText.setTextSize(mTextSize);
+            invalidateStaticLayer();
+            mLabelCache.clear();
+            clearLabelBitmapCache();
+            mTextMeasureDirty = true;
+        }
+    }
+
+    /**
+     * 设置惯性滚动模型，默认为 {@link DecayFlingModel}，终点总会对齐到 item 边界
+     */
+    public void setFlingModel(@NonNull FlingModel model) {
+        if (mActiveModel == mFlingModel) {
+            stopAnimation();
+        }
+        mFlingModel = model;
+    }
+
+    public FlingModel getFlingModel() {
+        return mFlingModel;
+    }
+
+    public void setMeasureStrategy(MeasureStrategy strategy) {
+        if (mMeasureStrategy != strategy) {
+            mMeasureStrategy = strategy;
+            mTextMeasureDirty = true;
+            requestLayout();
+        }
+    }
+
+    /**
+     * 开启后最大文字宽高的测量结果在进程内共享，字体、字号、测量策略和 adapter 都相同的 WheelView
+     * 直接使用已有结果，不再扫描 adapter。
+     * 不同 adapter 实例按 equals 和 hashCode 判断是否相同，例如 {@link NumericWheelAdapter}
+     */
+    public void setSharedMeasureEnabled(boolean enabled) {
+        mSharedMeasureEnabled = enabled;
+    }
+
+    public boolean isSharedMeasureEnabled() {
+        return mSharedMeasureEnabled;
+    }
+
+    /**
+     * 清空进程内共享的测量结果，例如内存紧张时
+     */
+    public static void clearSharedMeasureCache() {
+        SharedMeasureCache.clear();
+    }
+
+    /**
+     * @param gravity {@link #GRAVITY_CENTER}, {@link #GRAVITY_LEFT} 或 {@link #GRAVITY_RIGHT}
+     */
+    public void setGravity(int gravity) {
+        if (mGravity != gravity) {
+            mGravity = gravity;
+            mLabelCache.clear();
+            invalidate();
+        }
+    }
+
+    /**
+     * 设置文字测量缓存最多保存的 item 数，adapter 很大时超出部分按 LRU 淘汰
+     */
+    public void setLabelCacheSize(int maxSize) {
+        mLabelCache.setMaxSize(maxSize);
+    }
+
+    /**
+     * 设置预渲染文字条缓存的内存上限（字节），0 表示关闭，直接绘制文字
+     */
+    public void setLabelBitmapCacheSize(int maxBytes) {
+        if (maxBytes <= 0) {
+            clearLabelBitmapCache();
+            mLabelBitmapCache = null;
+        } else if (mLabelBitmapCache == null) {
+            mLabelBitmapCache = new LabelBitmapCache(maxBytes);
+        } else {
+            mLabelBitmapCache.setMaxBytes(maxBytes);
         }
+        invalidate();
     }
 
+    public long getLabelCacheHitCount() {
+        return mLabelCache.getHitCount();
+    }
+
+    public long getLabelCacheMissCount() {
+        return mLabelCache.getMissCount();
+    }
+
+    public void resetLabelCacheStats() {
+        mLabelCache.resetStats();
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.onLabelCacheStatsReset();
+        }
+    }
+
+    /**
+     * 开启后记录 onDraw 耗时分布、动画期间的迟到和丢帧、帧间隔抖动、文字测量缓存命中率、remeasure 耗时，
+     * 以及拖动时从触摸样本到绘制的延迟。
+     * 关闭时不做任何记录，关闭会丢弃已累计的数据
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled && mMetricsRecorder == null) {
+            mMetricsRecorder = new WheelMetricsRecorder(getFrameIntervalNanos());
+            mMetricsRecorder.reset(mLabelCache.getHitCount(), mLabelCache.getMissCount());
+        } else if (!enabled) {
+            mMetricsRecorder = null;
+        }
+    }
+
+    public boolean isMetricsEnabled() {
+        return mMetricsRecorder != null;
+    }
+
+    /**
+     * @return 当前累计数据的快照，未开启统计时返回 null
+     */
+    public WheelMetrics getMetrics() {
+        return mMetricsRecorder != null ? snapshotMetrics() : null;
+    }
+
+    public void resetMetrics() {
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.reset(mLabelCache.getHitCount(), mLabelCache.getMissCount());
+        }
+    }
+
+    public void setOnMetricsListener(OnMetricsListener listener) {
+        mOnMetricsListener = listener;
+    }
+
+    private WheelMetrics snapshotMetrics() {
+        return mMetricsRecorder.snapshot(mLabelCache.getHitCount(), mLabelCache.getMissCount());
+    }
+
+    private long getFrameIntervalNanos() {
+        WindowManager windowManager = (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+        float refreshRate = windowManager != null ? windowManager.getDefaultDisplay().getRefreshRate() : 0f;
+        if (refreshRate < 1f) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        return (long) (1e9 / refreshRate);
+    }
+
+    /**
+     * 直接跳到 currentItemIndex，常数时间，与数据量和跳转距离无关
+     */
     public void setCurrentItem(int currentItemIndex) {
-        mInitPosition = currentItemIndex;
-        mTotalScrollY = 0;
+        if (mAdapter != null) {
+            mLayout.setItemCount(mAdapter.getItemsCount());
+        }
+        stopAnimation();
+        mLayout.setCurrentItem(currentItemIndex);
         invalidate();
     }
 
+    public void smoothScrollToPosition(int index) {
+        smoothScrollToPosition(index, DEFAULT_SCROLL_TO_DURATION_MS);
+    }
+
+    /**
+     * 以减速动画滚动到 index，不论距离多远都在 durationMs 内完成，循环模式下走较近的方向。
+     * 目标位置直接算出，只在实际显示的帧上计算位置。
+     * 第一次测量之前还不知道行高，这时直接跳转，同 {@link #setCurrentItem(int)}
+     *
+     * @param durationMs 不大于 0 时直接跳转，同 {@link #setCurrentItem(int)}
+     */
+    public void smoothScrollToPosition(int index, int durationMs) {
+        if (mAdapter == null || mAdapter.getItemsCount() == 0) {
+            return;
+        }
+        if (durationMs <= 0 || mLayout.getItemHeight() <= 0) {
+            setCurrentItem(index);
+            return;
+        }
+        mLayout.setItemCount(mAdapter.getItemsCount());
+        stopAnimation();
+        mScrollToModel.setDuration(durationMs * 1000000L);
+        mScrollToModel.fling(0f, 0f);
+        startAnimation(SCROLL_STATE_SETTLE, mScrollToModel, mLayout.getScrollYForItem(index));
+    }
+
+    /**
+     * 根据当前滚动位置计算中间的项，不依赖上一次绘制的结果
+     *
+     * @return 没有数据时返回 -1
+     */
+    public int getCurrentItem() {
+        if (mAdapter == null) {
+            return -1;
+        }
+        mLayout.setItemCount(mAdapter.getItemsCount());
+        return mLayout.getCurrentItem();
+    }
+
+    public WheelAdapter getAdapter() {
+        return mAdapter;
+    }
+
+    /**
+     * @return 是否处于惯性滚动或回弹中
+     */
+    public boolean isScrolling() {
+        return mScrollState != SCROLL_STATE_IDLE;
+    }
+
+    /**
+     * 文字测量推迟到下一次 onMeasure，之后恢复的 SavedState 可以直接提供测量结果
+     */
     public void setAdapter(WheelAdapter adapter) {
-        mAdapter = adapter;
-        remeasure();
+        bindAdapter(adapter);
+        if (adapter != null) {
+            mLayout.setItemCount(adapter.getItemsCount());
+            mLayout.ensureInitPosition();
+        }
+        requestLayout();
         invalidate();
     }
 
+    /**
+     * 供列表复用 WheelView 时重新绑定数据：停止动画和手势，滚动位置归零并选中 currentItem。
+     * 新 adapter 与当前 adapter equals 时沿用已有的最大宽高，不重新布局；
+     * 否则清空最大宽高重新测量，不会沿用上一份数据更宽的结果。
+     * 同一个 adapter 实例的数据可能已经改变，按下标缓存的文字测量和位图总是清空
+     */
+    public void rebind(WheelAdapter adapter, int currentItem) {
+        boolean sameShape = adapter != null && adapter.equals(mAdapter) && !mTextMeasureDirty;
+        stopAnimation();
+        removeCallbacks(mItemSelectedRunnable);
+        clearTouchPrediction();
+        mVelocityTracker.clear();
+        mPendingTouchNanos = 0;
+        mOffset = 0;
+        bindAdapter(adapter);
+        if (sameShape) {
+            mTextMeasureDirty = false;
+        } else {
+            // 让上一份数据的后台扫描失效
+            mMeasureGeneration++;
+            mMaxTextWidth = 0;
+            mMaxTextHeight = 0;
+            requestLayout();
+        }
+        if (adapter != null) {
+            mLayout.setItemCount(adapter.getItemsCount());
+        }
+        mLayout.setCurrentItem(currentItem);
+        mSelectedItem = Math.max(0, mLayout.getInitPosition());
+        invalidate();
+    }
+
+    private void bindAdapter(WheelAdapter adapter) {
+        if (mObservableAdapter != null) {
+            mObservableAdapter.unregisterDataObserver(mDataObserver);
+        }
+        mAdapter = adapter;
+        if (adapter instanceof CharArrayWheelAdapter) {
+            mCharAdapter = (CharArrayWheelAdapter) adapter;
+            if (mLabelChars.length < mCharAdapter.getMaxLabelLength()) {
+                mLabelChars = new char[mCharAdapter.getMaxLabelLength()];
+            }
+        } else {
+            mCharAdapter = null;
+        }
+        mPagedAdapter = adapter instanceof PagedWheelAdapter ? (PagedWheelAdapter) adapter : null;
+        if (adapter instanceof BaseWheelAdapter) {
+            mObservableAdapter = (BaseWheelAdapter) adapter;
+            if (mDataObserver == null) {
+                mDataObserver = new AdapterDataObserver();
+            }
+            mObservableAdapter.registerDataObserver(mDataObserver);
+        } else {
+            mObservableAdapter = null;
+        }
+        mLabelCache.clear();
+        clearLabelBitmapCache();
+        mTextMeasureDirty = true;
+        mPendingPrefix = null;
+        invalidatePrefixIndex();
+        if (adapter instanceof SortKeyProvider) {
+            buildPrefixIndex();
+        }
+    }
+
+    /**
+     * 滚动到第一个键以 prefix 开头的 item，键来自 {@link SortKeyProvider}，未实现时使用 item 文字，
+     * 不区分大小写，循环模式下走较近的方向。
+     * 索引还没有建立时先建立，完成后再滚动到最近一次请求的前缀；item 文字在主线程分批读取，排序在后台进行。
+     * 分页 adapter 未实现 {@link SortKeyProvider} 时不支持。
+     *
+     * @return 是否开始滚动；没有匹配或索引还在建立时返回 false
+     */
+    public boolean jumpToPrefix(@NonNull String prefix) {
+        if (mAdapter == null) {
+            return false;
+        }
+        if (mPrefixIndex == null) {
+            mPendingPrefix = prefix;
+            buildPrefixIndex();
+            return false;
+        }
+        int position = mPrefixIndex.find(prefix);
+        if (position < 0) {
+            return false;
+        }
+        smoothScrollToPosition(position);
+        return true;
+    }
+
+    /**
+     * @return 第一个键以 prefix 开头的 item 下标，没有匹配或索引还没有建立时返回 -1
+     */
+    public int findPositionForPrefix(@NonNull String prefix) {
+        return mPrefixIndex != null ? mPrefixIndex.find(prefix) : -1;
+    }
+
+    public boolean isPrefixIndexReady() {
+        return mPrefixIndex != null;
+    }
+
     public void setOnItemSelectedListener(OnItemSelectedListener listener) {
         mOnItemSelectedListener = listener;
     }
@@ -327,179 +730,225 @@ public class WheelView extends View {
         if (mAdapter == null) {
             return;
         }
-        mVisibleItems.clear();
-        int mChange = (int) (mTotalScrollY / mItemHeight);
-        try {
-            mPreCurrentIndex = mInitPosition + mChange % mAdapter.getItemsCount();
-        } catch (ArithmeticException ignored) {
-        }
-        if (!mIsLoop) {
-            if (mPreCurrentIndex < 0) {
-                mPreCurrentIndex = 0;
-            }
-            if (mPreCurrentIndex > mAdapter.getItemsCount() - 1) {
-                mPreCurrentIndex = mAdapter.getItemsCount() - 1;
-            }
-        } else {
-            if (mPreCurrentIndex < 0) {
-                mPreCurrentIndex = mAdapter.getItemsCount() + mPreCurrentIndex;
-            }
-            if (mPreCurrentIndex > mAdapter.getItemsCount() - 1) {
-                mPreCurrentIndex = mPreCurrentIndex - mAdapter.getItemsCount();
-            }
+        if (WheelTrace.ENABLED) {
+            WheelTrace.beginSection(WheelTrace.DRAW);
         }
-        int itemHeightOffset = (int) (mTotalScrollY % mItemHeight);
-        int counter = 0;
-        while (counter < mItemsVisible) {
-            int index = mPreCurrentIndex - (mItemsVisible / 2 - counter);
-            if (mIsLoop) {
-                index = getLoopMappingIndex(index);
-                mVisibleItems.add(counter, index);
-            } else if (index < 0 || (index > mAdapter.getItemsCount() - 1)) {
-                mVisibleItems.add(counter, -1);
-            } else {
-                mVisibleItems.add(counter, index);
+        long drawStartNanos = mMetricsRecorder != null ? System.nanoTime() : 0;
+        if (mPendingTouchNanos != 0) {
+            if (mMetricsRecorder != null) {
+                // 触摸事件时间与 System.nanoTime() 都基于开机后的单调时钟
+                mMetricsRecorder.recordTouchLatency(drawStartNanos - mPendingTouchNanos);
             }
-            counter++;
+            mPendingTouchNanos = 0;
         }
-
-        canvas.drawLine(0.0f, mFirstLineY, mMeasuredWidth, mFirstLineY, mPaintIndicator);
-        canvas.drawLine(0.0f, mSecondLineY, mMeasuredWidth, mSecondLineY, mPaintIndicator);
-
-        if (!TextUtils.isEmpty(mLabel)) {
-            int drawRightContentStart = mMeasuredWidth - getTextWidth(mPaintCenterText, mLabel);
-            canvas.drawText(mLabel, drawRightContentStart - CENTER_CONTENT_OFFSET, mCenterY, mPaintCenterText);
+        mLayout.setItemCount(mAdapter.getItemsCount());
+        mLayout.layout();
+        if (mPagedAdapter != null) {
+            mPagedAdapter.onVisibleWindowChanged(mLayout.getPreCurrentIndex(),
+                    ITEMS_VISIBLE / 2 + 1, mLayout.isLoop());
         }
 
-        counter = 0;
-        while (counter < mItemsVisible) {
-            canvas.save();
-            float itemHeight = mMaxTextHeight * LINE_SPACING_MULTIPLIER;
-            double radian = ((itemHeight * counter - itemHeightOffset) * Math.PI) / mHalfCircumference;
-
-            float angle = (float) (90d - (radian / Math.PI) * 180d);
+        mDrawnScrollY = mLayout.getTotalScrollY();
+        drawStaticLayer(canvas);
 
-            int index = mVisibleItems.get(counter);
-            if (angle >= 90f || angle <= -90f) {
-                canvas.restore();
-            } else if (index >= 0) {
-                String contentText = mAdapter.getItemLabel(mVisibleItems.get(counter));
+        int counter = 0;
+        while (counter < ITEMS_VISIBLE) {
+            int index = mLayout.getRowItem(counter);
+            if (mLayout.isRowVisible(counter)) {
+                int contentLength = loadLabel(index);
+                if (mPagedAdapter != null && !mPagedAdapter.isItemLoaded(index)) {
+                    // 占位行不进缓存，避免页加载后仍显示旧的测量结果
+                    index = -1;
+                }
 
-                measuredCenterContentStart(contentText);
-                measuredOutContentStart(contentText);
-                float translateY = (float) (mRadius - Math.cos(radian) * mRadius
-                        - (Math.sin(radian) * mMaxTextHeight / 2d));
+                measuredContentStart(index, contentLength);
+                float translateY = mLayout.getRowTranslateY(counter);
+                float scale = mLayout.getRowScale(counter);
+                float itemHeight = mLayout.getItemHeight();
+                canvas.save();
                 canvas.translate(0.0f, translateY);
-                canvas.scale(1.0f, (float) Math.sin(radian));
+                canvas.scale(1.0f, scale);
                 if (translateY <= mFirstLineY && mMaxTextHeight + translateY >= mFirstLineY) {
                     canvas.save();
                     canvas.clipRect(0, 0, mMeasuredWidth, mFirstLineY - translateY);
-                    canvas.scale(1.0f, (float) (Math.sin(radian) * SCALE_CONTENT));
-                    canvas.drawText(contentText, mDrawOutContentStart, mMaxTextHeight, mPaintOuterText);
+                    canvas.scale(1.0f, scale * SCALE_CONTENT);
+                    drawOuterText(canvas, index, contentLength);
                     canvas.restore();
                     canvas.save();
                     canvas.clipRect(0, mFirstLineY - translateY, mMeasuredWidth, (int) itemHeight);
-                    canvas.scale(1.0f, (float) (Math.sin(radian) * 1f));
-                    canvas.drawText(contentText, mDrawCenterContentStart,
-                            mMaxTextHeight - CENTER_CONTENT_OFFSET, mPaintCenterText);
+                    canvas.scale(1.0f, scale);
+                    drawCenterText(canvas, index, contentLength);
                     canvas.restore();
                 } else if (translateY <= mSecondLineY && mMaxTextHeight + translateY >= mSecondLineY) {
                     canvas.save();
                     canvas.clipRect(0, 0, mMeasuredWidth, mSecondLineY - translateY);
-                    canvas.scale(1.0f, (float) (Math.sin(radian) * 1.0f));
-                    canvas.drawText(contentText, mDrawCenterContentStart,
-                            mMaxTextHeight - CENTER_CONTENT_OFFSET, mPaintCenterText);
+                    canvas.scale(1.0f, scale);
+                    drawCenterText(canvas, index, contentLength);
                     canvas.restore();
                     canvas.save();
                     canvas.clipRect(0, mSecondLineY - translateY, mMeasuredWidth, (int) itemHeight);
-                    canvas.scale(1.0f, (float) (Math.sin(radian) * SCALE_CONTENT));
-                    canvas.drawText(contentText, mDrawOutContentStart, mMaxTextHeight, mPaintOuterText);
+                    canvas.scale(1.0f, scale * SCALE_CONTENT);
+                    drawOuterText(canvas, index, contentLength);
                     canvas.restore();
                 } else if (translateY >= mFirstLineY && mMaxTextHeight + translateY <= mSecondLineY) {
                     canvas.clipRect(0, 0, mMeasuredWidth, (int) itemHeight);
-                    canvas.drawText(contentText, mDrawCenterContentStart,
-                            mMaxTextHeight - CENTER_CONTENT_OFFSET, mPaintCenterText);
-                    int preSelectedItem = mVisibleItems.get(counter);
-                    if (preSelectedItem != -1) {
-                        mSelectedItem = preSelectedItem;
-                    }
+                    drawCenterText(canvas, index, contentLength);
+                    mSelectedItem = mLayout.getRowItem(counter);
                 } else {
                     canvas.save();
                     canvas.clipRect(0, 0, mMeasuredWidth, (int) itemHeight);
-                    canvas.scale(1.0f, (float) (Math.sin(radian) * SCALE_CONTENT));
-                    canvas.drawText(contentText, mDrawOutContentStart, mMaxTextHeight, mPaintOuterText);
+                    canvas.scale(1.0f, scale * SCALE_CONTENT);
+                    drawOuterText(canvas, index, contentLength);
                     canvas.restore();
                 }
                 canvas.restore();
             }
             counter++;
         }
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.recordDraw(System.nanoTime() - drawStartNanos);
+        }
+        if (WheelTrace.ENABLED) {
+            WheelTrace.endSection();
+        }
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (WheelTrace.ENABLED) {
+            WheelTrace.beginSection(WheelTrace.MEASURE);
+        }
         mWidthMeasureSpec = widthMeasureSpec;
         remeasure();
         setMeasuredDimension(mMeasuredWidth, mMeasuredHeight);
+        if (WheelTrace.ENABLED) {
+            WheelTrace.endSection();
+        }
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        boolean eventConsumed = mGestureDetector.onTouchEvent(event);
-        Log.d(TAG, "onTouchEvent consumed event: " + eventConsumed + " event : " + event.getAction());
+        if (WheelTrace.ENABLED) {
+            WheelTrace.beginSection(WheelTrace.TOUCH);
+        }
         switch (event.getAction()) {
             case ACTION_DOWN:
                 mStartTime = System.currentTimeMillis();
-                cancelFuture();
-                mPreviousY = event.getRawY();
+                stopAnimation();
+                mPredictedScrollY = 0;
+                mLayout.startDrag();
+                mDragging = false;
+                mDownY = event.getY();
+                mPreviousY = mDownY;
+                mVelocityTracker.clear();
+                mVelocityTracker.addMovement(event.getEventTime() * 1000000L, mDownY);
                 break;
             case ACTION_MOVE:
-                float dy = mPreviousY - event.getRawY();
-                mPreviousY = event.getRawY();
-                mTotalScrollY += dy;
-                if (!mIsLoop) {
-                    float top = -mInitPosition * mItemHeight;
-                    float bottom = (mAdapter.getItemsCount() - 1 - mInitPosition) * mItemHeight;
-                    if (mTotalScrollY - mItemHeight * 0.3 < top) {
-                        top = mTotalScrollY - dy;
-                    } else if (mTotalScrollY + mItemHeight * 0.3 > bottom) {
-                        bottom = mTotalScrollY - dy;
-                    }
-                    if (mTotalScrollY < top) {
-                        mTotalScrollY = (int) top;
-                    } else if (mTotalScrollY > bottom) {
-                        mTotalScrollY = (int) bottom;
-                    }
+                if (mAdapter != null) {
+                    mLayout.setItemCount(mAdapter.getItemsCount());
+                }
+                clearTouchPrediction();
+                // 一次事件可能带着多个批量送达的样本，按顺序逐个处理
+                int historySize = event.getHistorySize();
+                for (int i = 0; i < historySize; i++) {
+                    onDragSample(event.getHistoricalEventTime(i), event.getHistoricalY(i));
+                }
+                onDragSample(event.getEventTime(), event.getY());
+                if (mTouchPredictionEnabled) {
+                    applyTouchPrediction();
+                }
+                if (mMetricsRecorder != null) {
+                    mPendingTouchNanos = mVelocityTracker.getLatestTime();
                 }
                 break;
             case ACTION_UP:
             default:
-                if (!eventConsumed) {
-                    float y = event.getY();
-                    double l = Math.acos((mRadius - y) / mRadius) * mRadius;
-                    int circlePosition = (int) ((l + mItemHeight / 2) / mItemHeight);
-
-                    float extraOffset = (mTotalScrollY % mItemHeight + mItemHeight) % mItemHeight;
-                    mOffset = (int) ((circlePosition - mItemsVisible / 2) * mItemHeight - extraOffset);
+                clearTouchPrediction();
+                // 抬起前停住时，只有加入抬起这一点才能让更早的样本落到时间窗口之外
+                mVelocityTracker.addMovement(event.getEventTime() * 1000000L, event.getY());
+                float velocityY = mVelocityTracker.computeVelocity();
+                if (mDragging && Math.abs(velocityY) > mMinFlingVelocity) {
+                    scrollBy(velocityY);
+                } else {
+                    mOffset = mLayout.getClickOffset(event.getY());
                     if ((System.currentTimeMillis() - mStartTime) > 120) {
                         smoothScroll(ACTION.DRAGGLE);
                     } else {
                         smoothScroll(ACTION.CLICK);
                     }
                 }
+                mVelocityTracker.clear();
                 break;
         }
-        invalidate();
+        invalidateIfScrolled();
+        if (WheelTrace.ENABLED) {
+            WheelTrace.endSection();
+        }
         return true;
     }
 
+    /**
+     * @param eventTimeMillis 样本时间，与 {@link android.os.SystemClock#uptimeMillis()} 同一时基
+     */
+    private void onDragSample(long eventTimeMillis, float y) {
+        mVelocityTracker.addMovement(eventTimeMillis * 1000000L, y);
+        if (!mDragging && Math.abs(y - mDownY) > mTouchSlop) {
+            mDragging = true;
+        }
+        mLayout.drag(mPreviousY - y);
+        mPreviousY = y;
+    }
+
+    /**
+     * 按当前速度把位置外推一帧，抵消触摸到显示之间的延迟；最多外推半行，避免急停时越过太多
+     */
+    private void applyTouchPrediction() {
+        float velocityY = mVelocityTracker.computeVelocity();
+        float maxPrediction = mLayout.getItemHeight() / 2f;
+        float prediction = -velocityY * (mFrameIntervalNanos / 1e9f);
+        prediction = Math.max(-maxPrediction, Math.min(maxPrediction, prediction));
+        long totalScrollY = mLayout.getTotalScrollY();
+        long predicted = mLayout.clampScrollPosition(totalScrollY + Math.round(prediction));
+        mPredictedScrollY = predicted - totalScrollY;
+        mLayout.setTotalScrollY(predicted);
+    }
+
+    private void clearTouchPrediction() {
+        if (mPredictedScrollY != 0) {
+            mLayout.setTotalScrollY(mLayout.getTotalScrollY() - mPredictedScrollY);
+            mPredictedScrollY = 0;
+        }
+    }
+
+    /**
+     * 开启后拖动时按手指速度把位置外推一帧，跟手更紧，代价是急停时可能短暂越过手指位置。
+     * 抬手时撤销预测的部分，不影响最终停下的位置
+     */
+    public void setTouchPredictionEnabled(boolean enabled) {
+        mTouchPredictionEnabled = enabled;
+    }
+
+    public boolean isTouchPredictionEnabled() {
+        return mTouchPredictionEnabled;
+    }
+
     @Override
     protected Parcelable onSaveInstanceState() {
         SavedState state = new SavedState(super.onSaveInstanceState());
-        state.loopable = mIsLoop;
+        state.loopable = mLayout.isLoop();
         state.textSize = mTextSize;
-        state.currentIndex = mInitPosition;
+        state.currentIndexSet = mLayout.hasInitPosition();
+        state.currentIndex = mLayout.getInitPosition();
+        // 动画不会在恢复后继续，直接保存它的终点
+        state.totalScrollY = mScrollState != SCROLL_STATE_IDLE
+                ? mAnimTargetScrollY : mLayout.getTotalScrollY();
         state.label = mLabel;
+        if (mAdapter != null && !mTextMeasureDirty && mTextMeasureComplete && isMeasureRestorable()) {
+            state.measured = true;
+            state.maxTextWidth = mMaxTextWidth;
+            state.maxTextHeight = mMaxTextHeight;
+            state.adapterFingerprint = getMeasureFingerprint();
+        }
         return state;
     }
 
@@ -512,57 +961,384 @@ public class WheelView extends View {
 
         SavedState savedState = (SavedState) state;
         super.onRestoreInstanceState(savedState.getSuperState());
-        mIsLoop = savedState.loopable;
-        mTextSize = savedState.textSize;
-        mInitPosition = savedState.currentIndex;
+        stopAnimation();
+        mLayout.setLoop(savedState.loopable);
+        if (mTextSize != savedState.textSize) {
+            mTextSize = savedState.textSize;
+            mPaintOuterText.setTextSize(mTextSize);
+            mPaintCenterText.setTextSize(mTextSize);
+            mLabelCache.clear();
+            clearLabelBitmapCache();
+            mTextMeasureDirty = true;
+        }
+        if (savedState.currentIndexSet) {
+            mLayout.setInitPosition(savedState.currentIndex);
+        } else {
+            mLayout.clearInitPosition();
+        }
+        mLayout.setTotalScrollY(savedState.totalScrollY);
         mLabel = savedState.label;
+        if (savedState.measured) {
+            // 保存时的结果来自已经释放的 adapter 实例，重新测量时再按指纹确认
+            mHasRestoredMeasure = true;
+            mRestoredFingerprint = savedState.adapterFingerprint;
+            mRestoredMaxTextWidth = savedState.maxTextWidth;
+            mRestoredMaxTextHeight = savedState.maxTextHeight;
+            mTextMeasureDirty = true;
+            // 恢复前 adapter 已经测量过时，最大值会沿用较宽的旧结果，这里从恢复的结果重新开始
+            mMaxTextWidth = 0;
+            mMaxTextHeight = 0;
+        }
+        invalidateStaticLayer();
+        requestLayout();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mAttachedToWindow = true;
+        mFrameIntervalNanos = getFrameIntervalNanos();
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.setFrameIntervalNanos(mFrameIntervalNanos);
+        }
+        if (mObservableAdapter != null) {
+            mObservableAdapter.registerDataObserver(mDataObserver);
+        }
+        if (mScrollState != SCROLL_STATE_IDLE) {
+            // 分离期间的时间不计入动画，从当前位置继续
+            mAnimStartNanos += System.nanoTime() - mDetachedNanos;
+            if (mMetricsRecorder != null) {
+                // 分离期间没有帧，不算作丢帧
+                mMetricsRecorder.onAnimationStart();
+            }
+            FrameClock.getInstance().addFrameListener(mFrameListener);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mAttachedToWindow = false;
+        if (mObservableAdapter != null) {
+            mObservableAdapter.unregisterDataObserver(mDataObserver);
+        }
+        if (mMeasureStrategy == MeasureStrategy.BACKGROUND) {
+            // 结果已无意义，让后台扫描尽早退出；重新挂载时再测量
+            mMeasureGeneration++;
+            mTextMeasureDirty = true;
+        }
+        if (mFrameListener != null) {
+            FrameClock.getInstance().removeFrameListener(mFrameListener);
+        }
+        mDetachedNanos = System.nanoTime();
+        removeCallbacks(mItemSelectedRunnable);
+        clearLabelBitmapCache();
+        releaseStaticLayer();
+        mStaticLayerDirty = true;
+        super.onDetachedFromWindow();
     }
 
     void smoothScroll(ACTION action) {
-        cancelFuture();
         if (action == ACTION.FLING || action == ACTION.DRAGGLE) {
-            mOffset = (int) ((mTotalScrollY % mItemHeight + mItemHeight) % mItemHeight);
-            if (mOffset > mItemHeight / 2.0f) {
-                mOffset = (int) (mItemHeight - mOffset);
-            } else {
-                mOffset = -mOffset;
-            }
+            mOffset = mLayout.getSettleOffset();
         }
-        mRealTotalOffset = Integer.MAX_VALUE;
-        mRealOffset = 0;
-        mFuture = mExecutor.scheduleWithFixedDelay(mSmoothScrollTimerTask, 0, 10, TimeUnit.MILLISECONDS);
+        mSettleModel.fling(0f, 0f);
+        startAnimation(SCROLL_STATE_SETTLE, mSettleModel,
+                mLayout.clampScrollPosition(mLayout.getTotalScrollY() + mOffset));
     }
 
     protected final void scrollBy(float velocityY) {
-        cancelFuture();
-        mVelocityY = velocityY;
-        mRealVelocityY = Integer.MAX_VALUE;
-        mFuture = mExecutor.scheduleWithFixedDelay(mInertiaTimerTask, 0, VELOCITY_FLING, TimeUnit.MILLISECONDS);
+        if (Math.abs(velocityY) > FLING_MAX_VELOCITY) {
+            velocityY = velocityY > 0f ? FLING_MAX_VELOCITY : -FLING_MAX_VELOCITY;
+        }
+        long totalScrollY = mLayout.getTotalScrollY();
+        mFlingModel.fling(0f, -velocityY * FLING_DISTANCE_SCALE);
+        // 直接把终点对齐到 item 边界，停下时不再需要回弹
+        long finalPosition = mLayout.snapScrollPosition(totalScrollY + (double) mFlingModel.getFinalPosition());
+        if (mFlingModel.isFinished(0)) {
+            smoothScroll(ACTION.FLING);
+            return;
+        }
+        startAnimation(SCROLL_STATE_FLING, mFlingModel, mLayout.clampScrollPosition(finalPosition));
     }
 
+    /**
+     * 停止当前的惯性滚动或回弹
+     */
+    public void stopAnimation() {
+        mScrollState = SCROLL_STATE_IDLE;
+        mActiveModel = null;
+        if (mFrameListener != null) {
+            FrameClock.getInstance().removeFrameListener(mFrameListener);
+        }
+    }
+
+    boolean isAnimating() {
+        return mFrameListener != null && FrameClock.getInstance().hasFrameListener(mFrameListener);
+    }
+
+    /**
+     * @deprecated 滚动动画已经不再使用线程池，请使用 {@link #stopAnimation()}
+     */
+    @Deprecated
     public void cancelFuture() {
-        if (mFuture != null && !mFuture.isCancelled()) {
-            mFuture.cancel(true);
-            mFuture = null;
+        stopAnimation();
+    }
+
+    /**
+     * @param model        已经调用过 {@link FlingModel#fling(float, float)}，起点为 0
+     * @param targetScrollY 动画结束时的滚动位置，模型按相对距离调整终点，结束时精确落在这里
+     */
+    private void startAnimation(int state, FlingModel model, long targetScrollY) {
+        mScrollState = state;
+        mActiveModel = model;
+        mAnimStartNanos = System.nanoTime();
+        mAnimStartScrollY = mLayout.getTotalScrollY();
+        mAnimTargetScrollY = targetScrollY;
+        model.setFinalPosition(targetScrollY - mAnimStartScrollY);
+        mDetachedNanos = mAnimStartNanos;
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.onAnimationStart();
+        }
+        if (mFrameListener == null) {
+            mFrameListener = new FrameClock.FrameListener() {
+                @Override
+                public boolean doFrame(long frameTimeNanos) {
+                    return onAnimationFrame(frameTimeNanos);
+                }
+            };
+        }
+        // 未挂载时只记录状态，等 onAttachedToWindow 再开始
+        if (mAttachedToWindow) {
+            FrameClock.getInstance().addFrameListener(mFrameListener);
         }
     }
 
-    private int getLoopMappingIndex(int index) {
-        if (index < 0) {
-            index += mAdapter.getItemsCount();
-            index = getLoopMappingIndex(index);
-        } else if (index > mAdapter.getItemsCount() - 1) {
-            index -= mAdapter.getItemsCount();
-            index = getLoopMappingIndex(index);
+    /**
+     * 位置只由动画开始后经过的时间决定，丢帧或帧间隔抖动不会改变滚动轨迹
+     */
+    boolean onAnimationFrame(long frameTimeNanos) {
+        if (mScrollState == SCROLL_STATE_IDLE) {
+            return false;
+        }
+        if (WheelTrace.ENABLED) {
+            WheelTrace.beginSection(WheelTrace.ANIMATION_TICK);
+        }
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.recordAnimationFrame(frameTimeNanos);
+        }
+        long elapsed = Math.max(0L, frameTimeNanos - mAnimStartNanos);
+        boolean finished = mActiveModel.isFinished(elapsed);
+        mLayout.setTotalScrollY(finished ? mAnimTargetScrollY
+                : mAnimStartScrollY + Math.round(mActiveModel.getPosition(elapsed)));
+        // 回弹末尾取整后常常停在同一像素上，这些帧不需要重绘
+        invalidateIfScrolled();
+        if (finished) {
+            finishSettle();
+        }
+        if (WheelTrace.ENABLED) {
+            WheelTrace.endSection();
+        }
+        return mScrollState != SCROLL_STATE_IDLE;
+    }
+
+    private void finishSettle() {
+        mScrollState = SCROLL_STATE_IDLE;
+        mActiveModel = null;
+        // 等本帧绘制完成、mSelectedItem 更新之后再回调
+        post(mItemSelectedRunnable);
+        if (mMetricsRecorder != null && mOnMetricsListener != null) {
+            mOnMetricsListener.onAnimationMetrics(this, snapshotMetrics());
+        }
+    }
+
+    private void invalidatePrefixIndex() {
+        mPrefixIndexGeneration++;
+        mPrefixIndex = null;
+        mPrefixIndexBuilding = false;
+        if (mPendingPrefix != null) {
+            // 等待中的跳转按新数据重新建立索引
+            buildPrefixIndex();
+        }
+    }
+
+    private void buildPrefixIndex() {
+        if (mPrefixIndexBuilding || mAdapter == null) {
+            return;
+        }
+        if (mPagedAdapter != null && !(mAdapter instanceof SortKeyProvider)) {
+            // 分页数据不能整体读取文字，等待中的跳转也不再执行
+            mPendingPrefix = null;
+            return;
+        }
+        mPrefixIndexBuilding = true;
+        int generation = mPrefixIndexGeneration;
+        String[] keys = new String[mAdapter.getItemsCount()];
+        if (mAdapter instanceof SortKeyProvider) {
+            buildPrefixIndexInBackground(generation, (SortKeyProvider) mAdapter, keys);
+        } else {
+            // WheelAdapter 不保证可以在后台线程读取，文字分批在主线程读取，只把排序放到后台
+            readPrefixKeys(generation, mAdapter, keys, 0);
+        }
+    }
+
+    private void readPrefixKeys(final int generation, final WheelAdapter adapter,
+                                final String[] keys, int start) {
+        if (generation != mPrefixIndexGeneration) {
+            return;
+        }
+        final int end = Math.min(keys.length, start + PREFIX_READ_CHUNK);
+        try {
+            for (int i = start; i < end; i++) {
+                keys[i] = adapter.getItemLabel(i);
+            }
+        } catch (RuntimeException e) {
+            // 数据在读取过程中变化，下次查找时重试
+            onPrefixIndexBuilt(generation, null);
+            return;
+        }
+        if (end < keys.length) {
+            BackgroundExecutor.postToMain(new Runnable() {
+                @Override
+                public void run() {
+                    readPrefixKeys(generation, adapter, keys, end);
+                }
+            });
+        } else {
+            buildPrefixIndexInBackground(generation, null, keys);
+        }
+    }
+
+    /**
+     * @param provider 不为 null 时在后台读取键，否则 keys 已经在主线程填好
+     */
+    private void buildPrefixIndexInBackground(final int generation, final SortKeyProvider provider,
+                                              final String[] keys) {
+        BackgroundExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                WheelPrefixIndex result;
+                try {
+                    if (provider != null) {
+                        for (int i = 0; i < keys.length; i++) {
+                            if ((i & 0xff) == 0 && generation != mPrefixIndexGeneration) {
+                                return;
+                            }
+                            keys[i] = provider.getSortKey(i);
+                        }
+                    }
+                    result = WheelPrefixIndex.build(keys);
+                } catch (RuntimeException e) {
+                    // 数据在建立过程中变化，下次查找时重试
+                    result = null;
+                }
+                final WheelPrefixIndex index = result;
+                BackgroundExecutor.postToMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPrefixIndexBuilt(generation, index);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onPrefixIndexBuilt(int generation, WheelPrefixIndex index) {
+        if (generation != mPrefixIndexGeneration) {
+            return;
+        }
+        mPrefixIndexBuilding = false;
+        mPrefixIndex = index;
+        String prefix = mPendingPrefix;
+        mPendingPrefix = null;
+        if (index != null && prefix != null) {
+            jumpToPrefix(prefix);
+        }
+    }
+
+    private void invalidateIfScrolled() {
+        if (mLayout.getTotalScrollY() != mDrawnScrollY) {
+            invalidate();
+        }
+    }
+
+    private void invalidateStaticLayer() {
+        mLabelWidth = -1;
+        mStaticLayerDirty = true;
+    }
+
+    private void drawStaticLayer(Canvas canvas) {
+        if (mStaticLayerDirty) {
+            mStaticLayerDirty = false;
+            rebuildStaticLayer();
+        }
+        if (mStaticLayer != null) {
+            canvas.drawBitmap(mStaticLayer, 0, mStaticLayerTop, null);
+        } else {
+            drawDividersAndLabel(canvas, 0);
+        }
+    }
+
+    /**
+     * 位图只覆盖两条分隔线和单位文字所在的横条，不是整个控件
+     */
+    private void rebuildStaticLayer() {
+        mPaintCenterText.getFontMetricsInt(mFontMetrics);
+        int top = (int) Math.floor(Math.min(mFirstLineY, mCenterY + mFontMetrics.top));
+        int bottom = (int) Math.ceil(Math.max(mSecondLineY, mCenterY + mFontMetrics.bottom)) + 1;
+        int width = mMeasuredWidth;
+        int height = bottom - top;
+        if (width <= 0 || height <= 0) {
+            releaseStaticLayer();
+            return;
+        }
+        if (mStaticLayer == null || mStaticLayer.getWidth() != width || mStaticLayer.getHeight() != height) {
+            releaseStaticLayer();
+            try {
+                mStaticLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            } catch (OutOfMemoryError e) {
+                // 内存不足时退回每帧直接绘制
+                return;
+            }
+        } else {
+            mStaticLayer.eraseColor(0);
+        }
+        mStaticLayerTop = top;
+        mStaticLayerCanvas.setBitmap(mStaticLayer);
+        drawDividersAndLabel(mStaticLayerCanvas, top);
+        mStaticLayerCanvas.setBitmap(null);
+    }
+
+    private void drawDividersAndLabel(Canvas canvas, int top) {
+        float firstLineY = mFirstLineY - top;
+        float secondLineY = mSecondLineY - top;
+        canvas.drawLine(0.0f, firstLineY, mMeasuredWidth, firstLineY, mPaintIndicator);
+        canvas.drawLine(0.0f, secondLineY, mMeasuredWidth, secondLineY, mPaintIndicator);
+
+        if (!TextUtils.isEmpty(mLabel)) {
+            if (mLabelWidth < 0) {
+                mLabelWidth = getTextWidth(mPaintCenterText, mLabel);
+            }
+            int drawRightContentStart = mMeasuredWidth - mLabelWidth;
+            canvas.drawText(mLabel, drawRightContentStart - CENTER_CONTENT_OFFSET, mCenterY - top,
+                    mPaintCenterText);
+        }
+    }
+
+    private void releaseStaticLayer() {
+        if (mStaticLayer != null) {
+            mStaticLayer.recycle();
+            mStaticLayer = null;
         }
-        return index;
     }
 
     private int getTextWidth(Paint paint, String str) {
         int ret = 0;
         if (!TextUtils.isEmpty(str)) {
             int len = str.length();
-            float[] widths = new float[len];
+            if (mTextWidths.length < len) {
+                mTextWidths = new float[len];
+            }
+            float[] widths = mTextWidths;
             paint.getTextWidths(str, widths);
             for (int i = 0; i < len; i++) {
                 ret += (int) Math.ceil(widths[i]);
@@ -571,35 +1347,93 @@ public class WheelView extends View {
         return ret;
     }
 
-    private void measuredCenterContentStart(String content) {
-        Rect rect = new Rect();
-        mPaintCenterText.getTextBounds(content, 0, content.length(), rect);
-        switch (mGravity) {
-            case GRAVITY_CENTER:
-                mDrawCenterContentStart = (int) ((mMeasuredWidth - rect.width()) * 0.5);
-                break;
-            case GRAVITY_LEFT:
-                mDrawCenterContentStart = 0;
-                break;
-            case GRAVITY_RIGHT:
-                mDrawCenterContentStart = mMeasuredWidth - rect.width();
-                break;
+    /**
+     * 把第 index 项的文字读入 {@link #mLabelChars}
+     *
+     * @return 文字长度
+     */
+    private int loadLabel(int index) {
+        if (mCharAdapter != null) {
+            return mCharAdapter.getItemLabel(index, mLabelChars);
+        }
+        String label = mAdapter.getItemLabel(index);
+        int length = label.length();
+        if (mLabelChars.length < length) {
+            mLabelChars = new char[Math.max(length, mLabelChars.length * 2)];
+        }
+        label.getChars(0, length, mLabelChars, 0);
+        return length;
+    }
+
+    /**
+     * @param index 小于 0 时不使用缓存
+     */
+    private void measuredContentStart(int index, int length) {
+        if (index < 0) {
+            Rect rect = mTextBounds;
+            mPaintCenterText.getTextBounds(mLabelChars, 0, length, rect);
+            mDrawCenterContentStart = getContentStart(rect.width());
+            mPaintOuterText.getTextBounds(mLabelChars, 0, length, rect);
+            mDrawOutContentStart = getContentStart(rect.width());
+            return;
         }
+        LabelMeasureCache.Entry entry = mLabelCache.get(index);
+        if (entry == null) {
+            entry = mLabelCache.put(index);
+            Rect rect = mTextBounds;
+            mPaintCenterText.getTextBounds(mLabelChars, 0, length, rect);
+            entry.centerWidth = rect.width();
+            entry.centerStart = getContentStart(entry.centerWidth);
+            mPaintOuterText.getTextBounds(mLabelChars, 0, length, rect);
+            entry.outWidth = rect.width();
+            entry.outStart = getContentStart(entry.outWidth);
+        }
+        mDrawCenterContentStart = entry.centerStart;
+        mDrawOutContentStart = entry.outStart;
     }
 
-    private void measuredOutContentStart(String content) {
-        Rect rect = new Rect();
-        mPaintOuterText.getTextBounds(content, 0, content.length(), rect);
+    private void drawCenterText(Canvas canvas, int index, int length) {
+        if (mLabelBitmapCache != null && index >= 0) {
+            LabelBitmapCache.Entry entry = mLabelBitmapCache.get(index,
+                    LabelBitmapCache.STYLE_CENTER, mLabelChars, length, mPaintCenterText);
+            if (entry != null) {
+                canvas.drawBitmap(entry.bitmap, mDrawCenterContentStart - LabelBitmapCache.PADDING,
+                        mMaxTextHeight - CENTER_CONTENT_OFFSET - entry.baseline, mPaintCenterText);
+                return;
+            }
+        }
+        canvas.drawText(mLabelChars, 0, length, mDrawCenterContentStart,
+                mMaxTextHeight - CENTER_CONTENT_OFFSET, mPaintCenterText);
+    }
+
+    private void drawOuterText(Canvas canvas, int index, int length) {
+        if (mLabelBitmapCache != null && index >= 0) {
+            LabelBitmapCache.Entry entry = mLabelBitmapCache.get(index,
+                    LabelBitmapCache.STYLE_OUT, mLabelChars, length, mPaintOuterText);
+            if (entry != null) {
+                canvas.drawBitmap(entry.bitmap, mDrawOutContentStart - LabelBitmapCache.PADDING,
+                        mMaxTextHeight - entry.baseline, mPaintOuterText);
+                return;
+            }
+        }
+        canvas.drawText(mLabelChars, 0, length, mDrawOutContentStart, mMaxTextHeight, mPaintOuterText);
+    }
+
+    private void clearLabelBitmapCache() {
+        if (mLabelBitmapCache != null) {
+            mLabelBitmapCache.clear();
+        }
+    }
+
+    private int getContentStart(int textWidth) {
         switch (mGravity) {
-            case GRAVITY_CENTER:
-                mDrawOutContentStart = (int) ((mMeasuredWidth - rect.width()) * 0.5);
-                break;
             case GRAVITY_LEFT:
-                mDrawOutContentStart = 0;
-                break;
+                return 0;
             case GRAVITY_RIGHT:
-                mDrawOutContentStart = mMeasuredWidth - rect.width();
-                break;
+                return mMeasuredWidth - textWidth;
+            case GRAVITY_CENTER:
+            default:
+                return (int) ((mMeasuredWidth - textWidth) * 0.5);
         }
     }
 
@@ -607,27 +1441,58 @@ public class WheelView extends View {
         if (mAdapter == null) {
             return;
         }
-        measureTextWidthHeight();
+        long startNanos = mMetricsRecorder != null ? System.nanoTime() : 0;
+        if (mTextMeasureDirty) {
+            mTextMeasureDirty = false;
+            measureTextWidthHeight();
+        }
+
+        mLayout.setItemHeight(LINE_SPACING_MULTIPLIER * mMaxTextHeight, mMaxTextHeight);
+        mMeasuredHeight = mLayout.getHeight();
 
-        mHalfCircumference = (int) (mItemHeight * (mItemsVisible - 1));
-        mMeasuredHeight = (int) (mHalfCircumference * 2 / Math.PI);
-        mRadius = (int) (mHalfCircumference / Math.PI);
+        int measuredWidth = MeasureSpec.getSize(mWidthMeasureSpec);
+        int widthMode = MeasureSpec.getMode(mWidthMeasureSpec);
+        if (widthMode != MeasureSpec.EXACTLY) {
+            int contentWidth = getContentWidth();
+            measuredWidth = widthMode == MeasureSpec.AT_MOST
+                    ? Math.min(measuredWidth, contentWidth) : contentWidth;
+        }
+        if (measuredWidth != mMeasuredWidth) {
+            mMeasuredWidth = measuredWidth;
+            mLabelCache.clear();
+            mStaticLayerDirty = true;
+        }
 
-        mMeasuredWidth = MeasureSpec.getSize(mWidthMeasureSpec);
+        float itemHeight = mLayout.getItemHeight();
+        float firstLineY = (mMeasuredHeight - itemHeight) / 2.0f;
+        float secondLineY = (mMeasuredHeight + itemHeight) / 2.0f;
+        float centerY = (mMeasuredHeight + mMaxTextHeight) / 2.0f - CENTER_CONTENT_OFFSET;
+        if (firstLineY != mFirstLineY || secondLineY != mSecondLineY || centerY != mCenterY) {
+            mFirstLineY = firstLineY;
+            mSecondLineY = secondLineY;
+            mCenterY = centerY;
+            mStaticLayerDirty = true;
+        }
 
-        mFirstLineY = (mMeasuredHeight - mItemHeight) / 2.0f;
-        mSecondLineY = (mMeasuredHeight + mItemHeight) / 2.0f;
-        mCenterY = (mMeasuredHeight + mMaxTextHeight) / 2.0f - CENTER_CONTENT_OFFSET;
+        mLayout.setItemCount(mAdapter.getItemsCount());
+        mLayout.ensureInitPosition();
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.recordRemeasure(System.nanoTime() - startNanos);
+        }
+    }
 
-        if (mInitPosition == -1) {
-            if (mIsLoop) {
-                mInitPosition = (mAdapter.getItemsCount() + 1) / 2;
-            } else {
-                mInitPosition = 0;
+    /**
+     * wrap_content 时的宽度：最宽的一项居中，两侧各留出单位文字的位置
+     */
+    private int getContentWidth() {
+        int width = mMaxTextWidth;
+        if (!TextUtils.isEmpty(mLabel)) {
+            if (mLabelWidth < 0) {
+                mLabelWidth = getTextWidth(mPaintCenterText, mLabel);
             }
+            width += 2 * (mLabelWidth + (int) CENTER_CONTENT_OFFSET);
         }
-
-        mPreCurrentIndex = mInitPosition;
+        return width;
     }
 
     protected void onItemSelected() {
@@ -638,54 +1503,338 @@ public class WheelView extends View {
     }
 
     private void measureTextWidthHeight() {
-        Rect rect = new Rect();
-        for (int i = 0, count = mAdapter.getItemsCount(); i < count; i++) {
-            String str = mAdapter.getItemLabel(i);
-            mPaintCenterText.getTextBounds(str, 0, str.length(), rect);
-            int textWidth = rect.width();
-            if (textWidth > mMaxTextWidth) {
-                mMaxTextWidth = textWidth;
+        int generation = ++mMeasureGeneration;
+        if (mHasRestoredMeasure) {
+            mHasRestoredMeasure = false;
+            if (isMeasureRestorable() && mRestoredFingerprint == getMeasureFingerprint()) {
+                mMaxTextWidth = Math.max(mMaxTextWidth, mRestoredMaxTextWidth);
+                mMaxTextHeight = Math.max(mMaxTextHeight, mRestoredMaxTextHeight);
+                mTextMeasureComplete = true;
+                return;
             }
-            mPaintCenterText.getTextBounds("\u661F\u671F", 0, 2, rect);
-            int textHeight = rect.height();
-            if (textHeight > mMaxTextHeight) {
-                mMaxTextHeight = textHeight;
+        }
+        boolean paged = mPagedAdapter != null && !(mAdapter instanceof WidestLabelHint);
+        // 分页数据的宽度随页加载逐步增加，不共享
+        SharedMeasureCache.Key key = mSharedMeasureEnabled && !paged ? new SharedMeasureCache.Key(
+                mPaintCenterText.getTypeface(), mPaintCenterText.getTextSize(),
+                mPaintCenterText.getTextScaleX(), mMeasureStrategy.ordinal(), mAdapter) : null;
+        mSharedMeasureKey = key;
+        if (key != null) {
+            long shared = SharedMeasureCache.get(key);
+            if (shared != -1L) {
+                mMaxTextWidth = Math.max(mMaxTextWidth, SharedMeasureCache.unpackWidth(shared));
+                mMaxTextHeight = Math.max(mMaxTextHeight, SharedMeasureCache.unpackHeight(shared));
+                mTextMeasureComplete = true;
+                return;
             }
         }
-        mItemHeight = LINE_SPACING_MULTIPLIER * mMaxTextHeight;
+
+        // 只统计本次 adapter 的结果写入共享缓存，之后再与已有的最大值合并
+        int previousWidth = mMaxTextWidth;
+        int previousHeight = mMaxTextHeight;
+        mMaxTextWidth = 0;
+        mMaxTextHeight = 0;
+        mTextMeasureComplete = measureLabels(generation, key);
+        if (mTextMeasureComplete && key != null) {
+            SharedMeasureCache.put(key, mMaxTextWidth, mMaxTextHeight);
+        }
+        mMaxTextWidth = Math.max(previousWidth, mMaxTextWidth);
+        mMaxTextHeight = Math.max(previousHeight, mMaxTextHeight);
     }
 
-    private static class InternalHandler extends Handler {
-        static final int WHAT_INVALIDATE_LOOP_VIEW = 1000;
-        static final int WHAT_SMOOTH_SCROLL = 2000;
-        static final int WHAT_ITEM_SELECTED = 3000;
+    /**
+     * 分页数据读取抽样文字会触发页加载，未加载的项只有占位文字，指纹无法匹配；
+     * 按提示测量本身只需要测量一项，不值得计算指纹。这两种情况都不保存测量结果
+     */
+    private boolean isMeasureRestorable() {
+        return mPagedAdapter == null
+                && !(mMeasureStrategy == MeasureStrategy.HINT && mAdapter instanceof WidestLabelHint);
+    }
 
-        @Override
-        public void handleMessage(Message msg) {
-            WheelView wheelView = (WheelView) msg.obj;
-            switch (msg.what) {
-                case WHAT_INVALIDATE_LOOP_VIEW:
-                    wheelView.invalidate();
-                    break;
-                case WHAT_SMOOTH_SCROLL:
-                    wheelView.smoothScroll(ACTION.FLING);
-                    break;
-                case WHAT_ITEM_SELECTED:
-                    wheelView.onItemSelected();
+    /**
+     * 标识测量结果依赖的数据和画笔配置，保存在 SavedState 中，恢复时判断结果是否仍然有效。
+     * 数据部分取 item 数量和均匀抽取的 {@link #MEASURE_SAMPLE_COUNT} 项文字，与 adapter 实例无关，
+     * 重建后的新实例只要内容相同就能匹配；代价是只改动了未抽中项的数据时会沿用旧结果
+     */
+    private long getMeasureFingerprint() {
+        int count = mAdapter.getItemsCount();
+        long result = mAdapter.getClass().getName().hashCode();
+        result = 31 * result + count;
+        result = 31 * result + Float.floatToIntBits(mPaintCenterText.getTextSize());
+        result = 31 * result + Float.floatToIntBits(mPaintCenterText.getTextScaleX());
+        result = 31 * result + mMeasureStrategy.ordinal();
+        for (int i = 0, samples = Math.min(count, MEASURE_SAMPLE_COUNT); i < samples; i++) {
+            int length = loadLabel(WheelMath.sampleIndex(i, count, MEASURE_SAMPLE_COUNT));
+            char[] chars = mLabelChars;
+            for (int j = 0; j < length; j++) {
+                result = 31 * result + chars[j];
+            }
+            result = 31 * result + length;
+        }
+        return result;
+    }
+
+    /**
+     * @return 结果是否已经完整，后台扫描或分页估计时返回 false
+     */
+    private boolean measureLabels(int generation, SharedMeasureCache.Key key) {
+        Rect rect = mTextBounds;
+        mPaintCenterText.getTextBounds("\u661F\u671F", 0, 2, rect);
+        if (rect.height() > mMaxTextHeight) {
+            mMaxTextHeight = rect.height();
+        }
+
+        int count = mAdapter.getItemsCount();
+        if (mPagedAdapter != null && !(mAdapter instanceof WidestLabelHint)) {
+            // 分页数据不能整体扫描，先按占位文字估计，页加载后再逐步加宽
+            String placeholder = mPagedAdapter.getPlaceholder();
+            mPaintCenterText.getTextBounds(placeholder, 0, placeholder.length(), mTextBounds);
+            mMaxTextWidth = Math.max(mMaxTextWidth, mTextBounds.width());
+            return false;
+        }
+        switch (mMeasureStrategy) {
+            case HINT:
+                if (mAdapter instanceof WidestLabelHint) {
+                    String widest = ((WidestLabelHint) mAdapter).getWidestItemLabel();
+                    mPaintCenterText.getTextBounds(widest, 0, widest.length(), mTextBounds);
+                    mMaxTextWidth = Math.max(mMaxTextWidth, mTextBounds.width());
                     break;
+                }
+                // 没有提示时按抽样处理
+            case SAMPLED:
+                measureSampledTextWidth(count);
+                break;
+            case BACKGROUND:
+                measureSampledTextWidth(count);
+                if (count > MEASURE_SAMPLE_COUNT) {
+                    measureTextWidthInBackground(generation, mAdapter, count, key, mMaxTextHeight);
+                    return false;
+                }
+                break;
+            case FULL:
+            default:
+                for (int i = 0; i < count; i++) {
+                    measureMaxTextWidth(loadLabel(i));
+                }
+                break;
+        }
+        return true;
+    }
+
+    private void measureSampledTextWidth(int count) {
+        for (int i = 0, samples = Math.min(count, MEASURE_SAMPLE_COUNT); i < samples; i++) {
+            measureMaxTextWidth(loadLabel(WheelMath.sampleIndex(i, count, MEASURE_SAMPLE_COUNT)));
+        }
+    }
+
+    private void measureMaxTextWidth(int length) {
+        Rect rect = mTextBounds;
+        mPaintCenterText.getTextBounds(mLabelChars, 0, length, rect);
+        if (rect.width() > mMaxTextWidth) {
+            mMaxTextWidth = rect.width();
+        }
+    }
+
+    /**
+     * 在后台线程完整扫描 adapter，adapter 的 getItemLabel 需要支持非主线程读取
+     */
+    private void measureTextWidthInBackground(final int generation, final WheelAdapter adapter,
+                                              final int count, final SharedMeasureCache.Key key,
+                                              final int maxTextHeight) {
+        final Paint paint = new Paint(mPaintCenterText);
+        BackgroundExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Rect rect = new Rect();
+                int maxWidth = 0;
+                CharArrayWheelAdapter charAdapter = adapter instanceof CharArrayWheelAdapter
+                        ? (CharArrayWheelAdapter) adapter : null;
+                char[] buffer = charAdapter != null ? new char[charAdapter.getMaxLabelLength()] : null;
+                for (int i = 0; i < count; i++) {
+                    if ((i & 0xff) == 0 && generation != mMeasureGeneration) {
+                        return;
+                    }
+                    if (charAdapter != null) {
+                        paint.getTextBounds(buffer, 0, charAdapter.getItemLabel(i, buffer), rect);
+                    } else {
+                        String str = adapter.getItemLabel(i);
+                        paint.getTextBounds(str, 0, str.length(), rect);
+                    }
+                    if (rect.width() > maxWidth) {
+                        maxWidth = rect.width();
+                    }
+                }
+                final int result = maxWidth;
+                BackgroundExecutor.postToMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        onBackgroundTextWidthMeasured(generation, result, key, maxTextHeight);
+                    }
+                });
             }
+        });
+    }
+
+    private void onBackgroundTextWidthMeasured(int generation, int maxWidth,
+                                               SharedMeasureCache.Key key, int maxTextHeight) {
+        if (generation != mMeasureGeneration) {
+            return;
+        }
+        mTextMeasureComplete = true;
+        if (key != null) {
+            SharedMeasureCache.put(key, maxWidth, maxTextHeight);
+        }
+        if (maxWidth > mMaxTextWidth) {
+            mMaxTextWidth = maxWidth;
+            requestLayout();
+        }
+    }
+
+    private class AdapterDataObserver extends WheelDataObserver {
+        @Override
+        public void onChanged() {
+            invalidatePrefixIndex();
+            removeSharedMeasure();
+            mLabelCache.clear();
+            clearLabelBitmapCache();
+            mTextMeasureDirty = true;
+            clampCurrentPosition();
+            requestLayout();
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            invalidatePrefixIndex();
+            removeSharedMeasure();
+            if (itemCount >= mLabelCache.getMaxSize()) {
+                mLabelCache.clear();
+                clearLabelBitmapCache();
+            } else {
+                for (int i = positionStart; i < positionStart + itemCount; i++) {
+                    mLabelCache.remove(i);
+                    if (mLabelBitmapCache != null) {
+                        mLabelBitmapCache.remove(i);
+                    }
+                }
+            }
+            measureChangedItems(positionStart, itemCount);
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            invalidatePrefixIndex();
+            removeSharedMeasure();
+            // 后面的下标整体移动，按下标缓存的结果都失效了
+            mLabelCache.clear();
+            clearLabelBitmapCache();
+            if (positionStart <= rebaseScrollPosition()) {
+                shiftCurrentPosition(itemCount);
+            }
+            if (mAdapter != null) {
+                mLayout.setItemCount(mAdapter.getItemsCount());
+            }
+            measureChangedItems(positionStart, itemCount);
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            invalidatePrefixIndex();
+            removeSharedMeasure();
+            mLabelCache.clear();
+            clearLabelBitmapCache();
+            int current = rebaseScrollPosition();
+            if (positionStart + itemCount <= current) {
+                shiftCurrentPosition(-itemCount);
+            } else if (positionStart <= current) {
+                // 选中项被删除，停在删除范围之后的第一项
+                shiftCurrentPosition(positionStart - current);
+            }
+            // 最大宽度只增不减，删除项不触发重新布局
+            clampCurrentPosition();
+            invalidate();
         }
     }
 
+    private void measureChangedItems(int positionStart, int itemCount) {
+        if (mAdapter == null) {
+            return;
+        }
+        int previousMaxWidth = mMaxTextWidth;
+        int end = Math.min(positionStart + itemCount, mAdapter.getItemsCount());
+        for (int i = positionStart; i < end; i++) {
+            if (mPagedAdapter == null || mPagedAdapter.isItemLoaded(i)) {
+                measureMaxTextWidth(loadLabel(i));
+            }
+        }
+        if (mMaxTextWidth > previousMaxWidth) {
+            requestLayout();
+        }
+    }
+
+    private void removeSharedMeasure() {
+        if (mSharedMeasureKey != null) {
+            SharedMeasureCache.remove(mSharedMeasureKey);
+            mSharedMeasureKey = null;
+        }
+    }
+
+    /**
+     * 把滚动过的整行并入初始位置，进行中的动画一起平移
+     *
+     * @return 当前中间的项
+     */
+    private int rebaseScrollPosition() {
+        long removed = mLayout.rebase();
+        mAnimStartScrollY -= removed;
+        mAnimTargetScrollY -= removed;
+        if (removed != 0) {
+            mDrawnScrollY = Long.MIN_VALUE;
+        }
+        return mLayout.getInitPosition();
+    }
+
+    private void shiftCurrentPosition(int delta) {
+        mLayout.shiftPosition(delta);
+        mSelectedItem += delta;
+    }
+
+    private void clampCurrentPosition() {
+        if (mAdapter == null) {
+            return;
+        }
+        int count = mAdapter.getItemsCount();
+        if (count == 0) {
+            return;
+        }
+        mLayout.setItemCount(count);
+        mSelectedItem += mLayout.clampPosition();
+        mSelectedItem = Math.max(0, Math.min(count - 1, mSelectedItem));
+    }
+
     private static class SavedState extends BaseSavedState {
         boolean loopable;
 
         int textSize;
 
+        boolean currentIndexSet;
+
         int currentIndex;
 
+        long totalScrollY;
+
         String label;
 
+        boolean measured;
+
+        int maxTextWidth;
+
+        int maxTextHeight;
+
+        long adapterFingerprint;
+
         SavedState(Parcelable superState) {
             super(superState);
         }
@@ -694,8 +1843,14 @@ public class WheelView extends View {
             super(source);
             loopable = source.readByte() != 0;
             textSize = source.readInt();
+            currentIndexSet = source.readByte() != 0;
             currentIndex = source.readInt();
+            totalScrollY = source.readLong();
             label = source.readString();
+            measured = source.readByte() != 0;
+            maxTextWidth = source.readInt();
+            maxTextHeight = source.readInt();
+            adapterFingerprint = source.readLong();
         }
 
         @Override
@@ -703,8 +1858,14 @@ public class WheelView extends View {
             super.writeToParcel(out, flags);
             out.writeByte((byte) (loopable ? 1 : 0));
             out.writeInt(textSize);
+            out.writeByte((byte) (currentIndexSet ? 1 : 0));
             out.writeInt(currentIndex);
+            out.writeLong(totalScrollY);
             out.writeString(label);
+            out.writeByte((byte) (measured ? 1 : 0));
+            out.writeInt(maxTextWidth);
+            out.writeInt(maxTextHeight);
+            out.writeLong(adapterFingerprint);
         }
 
         public static final Parcelable.Creator<SavedState> CREATOR
@@ -0,0 +1,13 @@
+package com.yalin.wheelview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * adapter 可选实现的接口，直接给出最宽的文字，
+ * 配合 {@link WheelView.MeasureStrategy#HINT} 时只测量这一条，不再遍历所有 item。
+ */
+
+public interface WidestLabelHint {
+    @NonNull
+    String getWidestItemLabel();
+}
@@ -0,0 +1,40 @@
+package com.yalin.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 查找表插值结果与直接三角函数计算的误差应在亚像素以内
+ */
+public class CylinderGeometryTest {
+    private static final int HALF_CIRCUMFERENCE = 560;
+    private static final int RADIUS = (int) (HALF_CIRCUMFERENCE / Math.PI);
+    private static final int TEXT_HEIGHT = 40;
+
+    @Test
+    public void matchesDirectTrigonometry() throws Exception {
+        CylinderGeometry geometry = new CylinderGeometry();
+        geometry.setup(HALF_CIRCUMFERENCE, RADIUS, TEXT_HEIGHT);
+        for (float y = 0.25f; y < HALF_CIRCUMFERENCE; y += 0.5f) {
+            double radian = y * Math.PI / HALF_CIRCUMFERENCE;
+            float translateY = (float) (RADIUS - Math.cos(radian) * RADIUS
+                    - Math.sin(radian) * TEXT_HEIGHT / 2d);
+            assertEquals(translateY, geometry.getTranslateY(y), 0.01f);
+            assertEquals((float) Math.sin(radian), geometry.getScale(y), 0.0001f);
+        }
+    }
+
+    @Test
+    public void edgesAreNotVisible() throws Exception {
+        CylinderGeometry geometry = new CylinderGeometry();
+        geometry.setup(HALF_CIRCUMFERENCE, RADIUS, TEXT_HEIGHT);
+        assertFalse(geometry.isVisible(0f));
+        assertFalse(geometry.isVisible(-10f));
+        assertFalse(geometry.isVisible(HALF_CIRCUMFERENCE));
+        assertTrue(geometry.isVisible(0.5f));
+        assertTrue(geometry.isVisible(HALF_CIRCUMFERENCE - 0.5f));
+    }
+}
@@ -0,0 +1,81 @@
+package com.yalin.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 惯性滚动模型的位置只由经过的时间决定，并且准确停在调整后的终点
+ */
+public class FlingModelTest {
+    private static final long FRAME_60HZ = 16666667L;
+    private static final long FRAME_120HZ = 8333333L;
+
+    @Test
+    public void decayStopsExactlyAtFinalPosition() throws Exception {
+        DecayFlingModel model = new DecayFlingModel();
+        model.fling(100f, -2400f);
+        float finalPosition = Math.round(model.getFinalPosition() / 48f) * 48f;
+        model.setFinalPosition(finalPosition);
+        assertFalse(model.isFinished(0));
+        assertTrue(model.isFinished(model.getDuration()));
+        assertEquals(100f, model.getPosition(0), 0f);
+        assertEquals(finalPosition, model.getPosition(model.getDuration()), 0f);
+        assertEquals(finalPosition, model.getPosition(model.getDuration() - 1), 1f);
+    }
+
+    @Test
+    public void splineStopsExactlyAtFinalPosition() throws Exception {
+        SplineFlingModel model = new SplineFlingModel(2f);
+        model.fling(0f, 3000f);
+        long duration = model.getDuration();
+        model.setFinalPosition(480f);
+        assertEquals(duration, model.getDuration());
+        assertEquals(480f, model.getPosition(duration), 0f);
+        assertTrue(model.isFinished(duration));
+    }
+
+    @Test
+    public void positionIsMonotonic() throws Exception {
+        FlingModel[] models = {new DecayFlingModel(), new SplineFlingModel(2f)};
+        for (FlingModel model : models) {
+            model.fling(0f, 4000f);
+            float previous = model.getPosition(0);
+            for (long t = FRAME_120HZ; !model.isFinished(t - FRAME_120HZ); t += FRAME_120HZ) {
+                float position = model.getPosition(t);
+                assertTrue(position >= previous);
+                previous = position;
+            }
+        }
+    }
+
+    @Test
+    public void slowFlingFinishesImmediately() throws Exception {
+        DecayFlingModel model = new DecayFlingModel();
+        model.fling(10f, DecayFlingModel.DEFAULT_STOP_VELOCITY / 2);
+        assertTrue(model.isFinished(0));
+        assertEquals(10f, model.getPosition(FRAME_60HZ), 0f);
+    }
+
+    @Test
+    public void timedScrollFinishesWithinDuration() throws Exception {
+        TimedScrollModel model = new TimedScrollModel(300000000L);
+        float[] distances = {48f, -48f * 1000, 48f * 1000000};
+        for (float distance : distances) {
+            model.fling(0f, 0f);
+            model.setFinalPosition(distance);
+            assertEquals(300000000L, model.getDuration());
+            assertFalse(model.isFinished(model.getDuration() - 1));
+            assertTrue(model.isFinished(model.getDuration()));
+            assertEquals(distance, model.getPosition(model.getDuration()), 0f);
+            float previous = model.getPosition(0);
+            for (long t = FRAME_60HZ; t < model.getDuration(); t += FRAME_60HZ) {
+                float position = model.getPosition(t);
+                assertTrue(distance > 0 ? position >= previous : position <= previous);
+                previous = position;
+            }
+        }
+    }
+}
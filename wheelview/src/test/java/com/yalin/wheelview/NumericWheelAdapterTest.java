@@ -0,0 +1,44 @@
+package com.yalin.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class NumericWheelAdapterTest {
+    @Test
+    public void formatsWithPaddingPrefixAndSuffix() throws Exception {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(0, 55, 5, 2, "~", "min");
+        assertEquals(12, adapter.getItemsCount());
+        assertEquals("~00min", adapter.getItemLabel(0));
+        assertEquals("~05min", adapter.getItemLabel(1));
+        assertEquals("~55min", adapter.getItemLabel(11));
+    }
+
+    @Test
+    public void writesIntoCallerBuffer() throws Exception {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(-10, 2000);
+        char[] buffer = new char[adapter.getMaxLabelLength()];
+        int length = adapter.getItemLabel(0, buffer);
+        assertEquals("-10", new String(buffer, 0, length));
+        length = adapter.getItemLabel(2010, buffer);
+        assertEquals("2000", new String(buffer, 0, length));
+        assertEquals(10, adapter.indexOf(0));
+    }
+
+    @Test
+    public void rejectsRangeLargerThanInt() throws Exception {
+        try {
+            new NumericWheelAdapter(Integer.MIN_VALUE, Integer.MAX_VALUE);
+            fail("count overflows int");
+        } catch (IllegalArgumentException expected) {
+            // 超出 int 的数量不能静默截断
+        }
+    }
+
+    @Test
+    public void acceptsWideRangeWithLargeStep() throws Exception {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(Integer.MIN_VALUE, Integer.MAX_VALUE, 3, 0);
+        assertEquals(1431655766, adapter.getItemsCount());
+    }
+}
@@ -0,0 +1,30 @@
+package com.yalin.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 淘汰页时的距离计算，只有循环模式下两端相接
+ */
+public class PagedWheelAdapterTest {
+    private static final int PAGE_COUNT = 10;
+
+    @Test
+    public void nonLoopEvictsOppositeEndFirst() throws Exception {
+        // 中心在最后一页时，第一页是最远的，不能因为环形距离为 1 而保留
+        int first = PagedWheelAdapter.pageDistance(0, 9, PAGE_COUNT, false);
+        int middle = PagedWheelAdapter.pageDistance(5, 9, PAGE_COUNT, false);
+        assertEquals(9, first);
+        assertEquals(4, middle);
+        assertTrue(first > middle);
+    }
+
+    @Test
+    public void loopUsesRingDistance() throws Exception {
+        assertEquals(1, PagedWheelAdapter.pageDistance(0, 9, PAGE_COUNT, true));
+        assertEquals(4, PagedWheelAdapter.pageDistance(5, 9, PAGE_COUNT, true));
+        assertEquals(5, PagedWheelAdapter.pageDistance(4, 9, PAGE_COUNT, true));
+    }
+}
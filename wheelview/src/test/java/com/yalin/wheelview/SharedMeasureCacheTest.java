@@ -0,0 +1,45 @@
+package com.yalin.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 相同字号和内容相同的 adapter 命中同一条结果，条目数有上限
+ */
+public class SharedMeasureCacheTest {
+    private static SharedMeasureCache.Key key(float textSize, WheelAdapter adapter) {
+        return new SharedMeasureCache.Key(null, textSize, 1.1f, 0, adapter);
+    }
+
+    @Test
+    public void equalAdaptersShareResult() throws Exception {
+        SharedMeasureCache.clear();
+        NumericWheelAdapter hours = new NumericWheelAdapter(0, 23, 1, 2);
+        SharedMeasureCache.put(key(40f, hours), 57, 31);
+
+        long shared = SharedMeasureCache.get(key(40f, new NumericWheelAdapter(0, 23, 1, 2)));
+        assertEquals(57, SharedMeasureCache.unpackWidth(shared));
+        assertEquals(31, SharedMeasureCache.unpackHeight(shared));
+
+        assertEquals(-1L, SharedMeasureCache.get(key(42f, hours)));
+        assertEquals(-1L, SharedMeasureCache.get(key(40f, new NumericWheelAdapter(0, 59, 1, 2))));
+        assertFalse(key(40f, hours).equals(key(40f, new NumericWheelAdapter(0, 23, 1, 2, "~", null))));
+        assertTrue(key(40f, hours).equals(key(40f, hours)));
+    }
+
+    @Test
+    public void boundedByLru() throws Exception {
+        SharedMeasureCache.clear();
+        NumericWheelAdapter first = new NumericWheelAdapter(0, 0);
+        SharedMeasureCache.put(key(10f, first), 1, 1);
+        for (int i = 1; i <= SharedMeasureCache.MAX_SIZE; i++) {
+            SharedMeasureCache.put(key(10f + i, first), i, i);
+        }
+        assertEquals(SharedMeasureCache.MAX_SIZE, SharedMeasureCache.size());
+        assertEquals(-1L, SharedMeasureCache.get(key(10f, first)));
+        assertEquals(SharedMeasureCache.pack(1, 1), SharedMeasureCache.get(key(11f, first)));
+    }
+}
@@ -0,0 +1,237 @@
+package com.yalin.wheelview;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 可见行下标、边界限制和回弹距离的计算
+ */
+public class WheelLayoutEngineTest {
+    private static final int ITEMS_VISIBLE = 11;
+    private static final float ITEM_HEIGHT = 56f;
+    private static final int TEXT_HEIGHT = 35;
+
+    private static WheelLayoutEngine newEngine(int count, boolean loop) {
+        WheelLayoutEngine engine = new WheelLayoutEngine(ITEMS_VISIBLE);
+        engine.setItemCount(count);
+        engine.setLoop(loop);
+        engine.setItemHeight(ITEM_HEIGHT, TEXT_HEIGHT);
+        engine.ensureInitPosition();
+        return engine;
+    }
+
+    @Test
+    public void loopWrapsVisibleRows() throws Exception {
+        WheelLayoutEngine engine = newEngine(20, true);
+        engine.setCurrentItem(1);
+        engine.layout();
+        assertEquals(1, engine.getPreCurrentIndex());
+        assertEquals(16, engine.getRowItem(0));
+        assertEquals(19, engine.getRowItem(3));
+        assertEquals(0, engine.getRowItem(4));
+        assertEquals(1, engine.getRowItem(ITEMS_VISIBLE / 2));
+        assertEquals(6, engine.getRowItem(ITEMS_VISIBLE - 1));
+    }
+
+    @Test
+    public void nonLoopLeavesEmptyRows() throws Exception {
+        WheelLayoutEngine engine = newEngine(20, false);
+        engine.layout();
+        assertEquals(0, engine.getPreCurrentIndex());
+        for (int row = 0; row < ITEMS_VISIBLE / 2; row++) {
+            assertEquals(-1, engine.getRowItem(row));
+            assertFalse(engine.isRowVisible(row));
+        }
+        assertEquals(0, engine.getRowItem(ITEMS_VISIBLE / 2));
+        assertTrue(engine.isRowVisible(ITEMS_VISIBLE / 2));
+    }
+
+    @Test
+    public void dragStopsNearEnds() throws Exception {
+        WheelLayoutEngine engine = newEngine(5, false);
+        for (int i = 0; i < 20; i++) {
+            engine.drag(-10f);
+        }
+        assertTrue(engine.getTotalScrollY() >= -ITEM_HEIGHT * 0.3f - 10f);
+        engine.setTotalScrollY(0);
+        for (int i = 0; i < 100; i++) {
+            engine.drag(10f);
+        }
+        assertTrue(engine.getTotalScrollY() <= 4 * ITEM_HEIGHT + ITEM_HEIGHT * 0.3f + 10f);
+        assertEquals((long) (4 * ITEM_HEIGHT), engine.clampScrollPosition(10000L));
+        assertEquals(0L, engine.clampScrollPosition(-10000L));
+    }
+
+    @Test
+    public void subPixelDragIsNotLost() throws Exception {
+        WheelLayoutEngine engine = newEngine(100, true);
+        engine.startDrag();
+        for (int i = 0; i < 100; i++) {
+            engine.drag(0.4f);
+        }
+        assertEquals(40, engine.getTotalScrollY());
+        engine.setTotalScrollY(0);
+        engine.startDrag();
+        for (int i = 0; i < 100; i++) {
+            engine.drag(-0.6f);
+        }
+        assertEquals(-60, engine.getTotalScrollY());
+    }
+
+    @Test
+    public void negativeInitPositionIsKept() throws Exception {
+        WheelLayoutEngine engine = newEngine(20, true);
+        engine.setCurrentItem(0);
+        engine.setTotalScrollY((long) (3 * ITEM_HEIGHT));
+        // 删除初始位置之前的一项，初始位置变为 -1
+        engine.setItemCount(19);
+        engine.shiftPosition(-1);
+        engine.ensureInitPosition();
+        assertEquals(-1, engine.getInitPosition());
+        assertTrue(engine.hasInitPosition());
+        engine.layout();
+        assertEquals(2, engine.getPreCurrentIndex());
+
+        engine.clearInitPosition();
+        engine.ensureInitPosition();
+        assertEquals(10, engine.getInitPosition());
+    }
+
+    @Test
+    public void removingItemsBeforeCurrentKeepsSelection() throws Exception {
+        WheelLayoutEngine engine = newEngine(100, false);
+        engine.setTotalScrollY((long) (50 * ITEM_HEIGHT));
+        engine.layout();
+        assertEquals(50, engine.getCurrentItem());
+        // 删除 0..9，选中项平移到 40
+        engine.setItemCount(90);
+        engine.shiftPosition(-10);
+        engine.layout();
+        assertEquals(-10, engine.getInitPosition());
+        assertEquals(40, engine.getPreCurrentIndex());
+        assertEquals(40, engine.getCurrentItem());
+        assertEquals(engine.getTotalScrollY(), engine.getScrollYForItem(40));
+    }
+
+    @Test
+    public void rebaseBeforeShiftHandlesWrappedLoop() throws Exception {
+        WheelLayoutEngine engine = newEngine(10, true);
+        engine.setCurrentItem(5);
+        // 滚过 7 行再多 10 像素，中间绕回到第 2 项
+        engine.setTotalScrollY((long) (7 * ITEM_HEIGHT) + 10);
+        assertEquals(2, engine.getCurrentItem());
+
+        assertEquals((long) (7 * ITEM_HEIGHT), engine.rebase());
+        assertEquals(2, engine.getInitPosition());
+        assertEquals(10, engine.getTotalScrollY());
+        // 在第 0 项前插入一项，原来的第 2 项变为第 3 项
+        engine.setItemCount(11);
+        engine.shiftPosition(1);
+        assertEquals(3, engine.getCurrentItem());
+
+        engine.setTotalScrollY((long) (-4 * ITEM_HEIGHT));
+        assertEquals(10, engine.getCurrentItem());
+        engine.rebase();
+        assertEquals(10, engine.getInitPosition());
+        assertEquals(0, engine.getTotalScrollY());
+        // 删除第 0、1 项，原来的第 10 项变为第 8 项
+        engine.setItemCount(9);
+        engine.shiftPosition(-2);
+        assertEquals(0, engine.clampPosition());
+        engine.layout();
+        assertEquals(8, engine.getPreCurrentIndex());
+        assertEquals(8, engine.getCurrentItem());
+    }
+
+    @Test
+    public void settleOffsetLandsOnItemBoundary() throws Exception {
+        WheelLayoutEngine engine = newEngine(100, true);
+        engine.setTotalScrollY(20);
+        assertEquals(-20, engine.getSettleOffset());
+        engine.setTotalScrollY(40);
+        assertEquals(16, engine.getSettleOffset());
+        engine.setTotalScrollY(-40);
+        assertEquals(-16, engine.getSettleOffset());
+    }
+
+    @Test
+    public void centerRowMatchesCurrentItem() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            int count = 1 + random.nextInt(200);
+            boolean loop = random.nextBoolean();
+            WheelLayoutEngine engine = newEngine(count, loop);
+            int steps = random.nextInt(count * 4 + 1) - count * 2;
+            engine.setTotalScrollY(engine.clampScrollPosition((long) (steps * ITEM_HEIGHT)));
+            engine.layout();
+            int current = engine.getCurrentItem();
+            assertTrue(current >= 0 && current < count);
+            assertEquals(current, engine.getPreCurrentIndex());
+            assertEquals(current, engine.getRowItem(ITEMS_VISIBLE / 2));
+            for (int row = 0; row < ITEMS_VISIBLE; row++) {
+                int item = engine.getRowItem(row);
+                assertTrue(item >= -1 && item < count);
+            }
+        }
+    }
+
+    @Test
+    public void millionItemsFarFromOrigin() throws Exception {
+        int count = 5000000;
+        WheelLayoutEngine engine = newEngine(count, false);
+        engine.setCurrentItem(0);
+        long end = engine.clampScrollPosition(Long.MAX_VALUE / 2);
+        assertEquals((long) ((count - 1) * (double) ITEM_HEIGHT), end);
+        engine.setTotalScrollY(end);
+        engine.layout();
+        assertEquals(count - 1, engine.getCurrentItem());
+        assertEquals(count - 1, engine.getPreCurrentIndex());
+        assertEquals(count - 1, engine.getRowItem(ITEMS_VISIBLE / 2));
+        assertEquals(-1, engine.getRowItem(ITEMS_VISIBLE - 1));
+
+        engine.setCurrentItem(count + 10);
+        assertEquals(count - 1, engine.getInitPosition());
+    }
+
+    @Test
+    public void loopMappingIsConstantTime() throws Exception {
+        WheelLayoutEngine engine = newEngine(7, true);
+        engine.setTotalScrollY(-((long) ITEM_HEIGHT * 7 * 1000000000L + (long) ITEM_HEIGHT * 3));
+        engine.layout();
+        assertEquals(engine.getCurrentItem(), engine.getPreCurrentIndex());
+        assertEquals(WheelMath.loopMappingIndex(engine.getInitPosition() - 3, 7), engine.getCurrentItem());
+
+        assertEquals(6, WheelMath.loopMappingIndex(-1, 7));
+        assertEquals(0, WheelMath.loopMappingIndex(-7000000000000L, 7));
+        assertEquals(3, WheelMath.loopMappingIndex(Integer.MAX_VALUE * 7L + 3, 7));
+        assertEquals(-1, WheelMath.loopMappingIndex(5, 0));
+        assertEquals(1, WheelMath.floorMod(-7, 4));
+    }
+
+    @Test
+    public void sampleIndexCoversBothEnds() throws Exception {
+        assertEquals(0, WheelMath.sampleIndex(0, 1000000, 64));
+        assertEquals(999999, WheelMath.sampleIndex(63, 1000000, 64));
+        assertEquals(5, WheelMath.sampleIndex(5, 40, 64));
+    }
+
+    @Test
+    public void loopJumpTakesShortestDirection() throws Exception {
+        WheelLayoutEngine engine = new WheelLayoutEngine(11);
+        engine.setItemCount(100);
+        engine.setLoop(true);
+        engine.setItemHeight(50f, 30);
+        engine.setCurrentItem(2);
+        assertEquals(-4 * 50L, engine.getScrollYForItem(98));
+        assertEquals(3 * 50L, engine.getScrollYForItem(5));
+
+        engine.setLoop(false);
+        assertEquals(96 * 50L, engine.getScrollYForItem(98));
+        assertEquals(97 * 50L, engine.getScrollYForItem(1000));
+    }
+}
@@ -0,0 +1,61 @@
+package com.yalin.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 迟到帧、丢帧和抖动的判定，以及快照与累计数据互不影响
+ */
+public class WheelMetricsRecorderTest {
+    private static final long FRAME = 16666667L;
+
+    @Test
+    public void countsLateAndDroppedFrames() throws Exception {
+        WheelMetricsRecorder recorder = new WheelMetricsRecorder(FRAME);
+        recorder.onAnimationStart();
+        long time = 1000000000L;
+        recorder.recordAnimationFrame(time);
+        recorder.recordAnimationFrame(time += FRAME);
+        recorder.recordAnimationFrame(time += FRAME + 1000000L);
+        // 跳过两帧
+        recorder.recordAnimationFrame(time += FRAME * 3);
+        WheelMetrics metrics = recorder.snapshot(0, 0);
+        assertEquals(3, metrics.getAnimationFrameCount());
+        assertEquals(1, metrics.getLateFrameCount());
+        assertEquals(2, metrics.getDroppedFrameCount());
+        assertEquals(FRAME * 2, metrics.getMaxJitterNanos());
+
+        // 新动画的第一帧不与上一次动画的最后一帧比较
+        recorder.onAnimationStart();
+        recorder.recordAnimationFrame(time + FRAME * 100);
+        assertEquals(3, recorder.snapshot(0, 0).getAnimationFrameCount());
+    }
+
+    @Test
+    public void drawHistogramAndCacheRate() throws Exception {
+        WheelMetricsRecorder recorder = new WheelMetricsRecorder(FRAME);
+        recorder.reset(10, 10);
+        recorder.recordDraw(100000L);
+        recorder.recordDraw(3000000L);
+        recorder.recordDraw(40000000L);
+        WheelMetrics metrics = recorder.snapshot(13, 11);
+        assertEquals(3, metrics.getDrawCount());
+        assertEquals(1, metrics.getDrawCount(0));
+        assertEquals(1, metrics.getDrawCount(3));
+        assertEquals(1, metrics.getDrawCount(WheelMetrics.getDrawBucketCount() - 1));
+        assertEquals(40000000L, metrics.getDrawMaxNanos());
+        assertEquals(0.75f, metrics.getLabelCacheHitRate(), 0.0001f);
+
+        recorder.recordTouchLatency(8000000L);
+        recorder.recordTouchLatency(12000000L);
+        recorder.recordTouchLatency(-1L);
+        assertEquals(2, recorder.snapshot(0, 0).getTouchLatencyCount());
+        assertEquals(10000000L, recorder.snapshot(0, 0).getTouchLatencyAverageNanos());
+
+        recorder.recordDraw(100000L);
+        assertEquals(3, metrics.getDrawCount());
+        recorder.reset(0, 0);
+        assertEquals(0, recorder.snapshot(0, 0).getDrawCount());
+    }
+}
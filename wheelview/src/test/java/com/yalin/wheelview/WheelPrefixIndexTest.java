@@ -0,0 +1,35 @@
+package com.yalin.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 前缀查找返回第一个匹配的下标，不区分大小写
+ */
+public class WheelPrefixIndexTest {
+    private static final String[] COUNTRIES = {
+            "Norway", "Germany", "Netherlands", "Japan", "germany", "New Zealand", "Chile", "China"
+    };
+
+    @Test
+    public void findsFirstMatchIgnoringCase() throws Exception {
+        WheelPrefixIndex index = WheelPrefixIndex.build(COUNTRIES.clone());
+        assertEquals(COUNTRIES.length, index.size());
+        assertEquals(2, index.find("Ne"));
+        assertEquals(5, index.find("new"));
+        assertEquals(0, index.find("NO"));
+        assertEquals(1, index.find("germ"));
+        assertEquals(6, index.find("Chi"));
+        assertEquals(7, index.find("chin"));
+        assertEquals(-1, index.find("x"));
+        assertEquals(-1, index.find("Chinaa"));
+    }
+
+    @Test
+    public void emptyPrefixMatchesSmallestKey() throws Exception {
+        WheelPrefixIndex index = WheelPrefixIndex.build(COUNTRIES.clone());
+        assertEquals(6, index.find(""));
+        assertEquals(-1, WheelPrefixIndex.build(new String[0]).find("a"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.yalin.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 历史样本参与速度估计，过旧或停顿之前的样本不参与
+ */
+public class WheelVelocityTrackerTest {
+    private static final long SAMPLE_240HZ = 4166667L;
+
+    @Test
+    public void constantVelocityFromDenseSamples() throws Exception {
+        WheelVelocityTracker tracker = new WheelVelocityTracker();
+        long time = 5000000000000L;
+        for (int i = 0; i < 100; i++) {
+            tracker.addMovement(time + i * SAMPLE_240HZ, 100f + i * SAMPLE_240HZ * 1500f / 1e9f);
+        }
+        assertEquals(1500f, tracker.computeVelocity(), 1f);
+        assertEquals(time + 99 * SAMPLE_240HZ, tracker.getLatestTime());
+    }
+
+    @Test
+    public void noisySamplesAverageOut() throws Exception {
+        WheelVelocityTracker tracker = new WheelVelocityTracker();
+        for (int i = 0; i < 24; i++) {
+            float jitter = i % 2 == 0 ? 1.5f : -1.5f;
+            tracker.addMovement(i * SAMPLE_240HZ, -i * SAMPLE_240HZ * 2000f / 1e9f + jitter);
+        }
+        // 只看最后两个样本时误差接近 700 像素每秒
+        assertEquals(-2000f, tracker.computeVelocity(), 100f);
+    }
+
+    @Test
+    public void ignoresSamplesBeforePause() throws Exception {
+        WheelVelocityTracker tracker = new WheelVelocityTracker();
+        tracker.addMovement(0, 0f);
+        tracker.addMovement(10000000L, 50f);
+        // 停住 80ms 后再慢慢移动
+        tracker.addMovement(90000000L, 50f);
+        tracker.addMovement(100000000L, 52f);
+        assertEquals(200f, tracker.computeVelocity(), 0.5f);
+    }
+
+    @Test
+    public void notEnoughSamples() throws Exception {
+        WheelVelocityTracker tracker = new WheelVelocityTracker();
+        assertEquals(0f, tracker.computeVelocity(), 0f);
+        tracker.addMovement(0, 10f);
+        assertEquals(0f, tracker.computeVelocity(), 0f);
+        tracker.addMovement(200000000L, 30f);
+        assertEquals(0f, tracker.computeVelocity(), 0f);
+        tracker.clear();
+        assertEquals(0, tracker.getSampleCount());
+    }
+
+    @Test
+    public void holdBeforeLiftStopsFling() throws Exception {
+        WheelVelocityTracker tracker = new WheelVelocityTracker();
+        for (int i = 0; i < 20; i++) {
+            tracker.addMovement(i * SAMPLE_240HZ, i * SAMPLE_240HZ * 2500f / 1e9f);
+        }
+        assertEquals(2500f, tracker.computeVelocity(), 1f);
+        // 停住 500ms 后抬起，抬起点与最后一个移动样本位置相同
+        long lift = 19 * SAMPLE_240HZ + 500000000L;
+        tracker.addMovement(lift, 19 * SAMPLE_240HZ * 2500f / 1e9f);
+        assertEquals(0f, tracker.computeVelocity(), 0f);
+    }
+}